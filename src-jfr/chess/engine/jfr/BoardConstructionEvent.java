@@ -0,0 +1,21 @@
+package chess.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("chess.BoardConstruction")
+@Label("Board Construction")
+@Category({"Chess", "Board"})
+@Description("Board built from a builder, including its players")
+@Threshold("1 ms")
+public final class BoardConstructionEvent extends jdk.jfr.Event {
+	@Label("Piece Count")
+	public int pieceCount;
+
+	@Label("Incremental")
+	@Description("Scores and hashes derived from the previous board")
+	public boolean incremental;
+}
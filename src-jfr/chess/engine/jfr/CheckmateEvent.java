@@ -0,0 +1,20 @@
+package chess.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("chess.Checkmate")
+@Label("Checkmate Detection")
+@Category({"Chess", "Player"})
+@Description("Player.isInCheckmate or isInStaleMate looking for an escape move")
+@Threshold("1 ms")
+public final class CheckmateEvent extends jdk.jfr.Event {
+	@Label("In Check")
+	public boolean inCheck;
+
+	@Label("Has Escape Move")
+	public boolean hasEscapeMove;
+}
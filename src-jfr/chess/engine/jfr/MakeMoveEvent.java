@@ -0,0 +1,20 @@
+package chess.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("chess.MakeMove")
+@Label("Make Move")
+@Category({"Chess", "Player"})
+@Description("Player.makeMove, execution plus the legality check")
+@Threshold("1 ms")
+public final class MakeMoveEvent extends jdk.jfr.Event {
+	@Label("Move")
+	public String move;
+
+	@Label("Status")
+	public String status;
+}
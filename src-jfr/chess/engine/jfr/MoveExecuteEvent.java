@@ -0,0 +1,20 @@
+package chess.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("chess.MoveExecute")
+@Label("Move Execute")
+@Category({"Chess", "Board"})
+@Description("Move.execute building the board after a move")
+@Threshold("1 ms")
+public final class MoveExecuteEvent extends jdk.jfr.Event {
+	@Label("Move Type")
+	public String moveType;
+
+	@Label("Move")
+	public String move;
+}
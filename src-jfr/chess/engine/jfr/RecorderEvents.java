@@ -0,0 +1,98 @@
+package chess.engine.jfr;
+
+import chess.engine.board.Move;
+import chess.engine.player.MoveStatus;
+
+/**
+ * flight recorder implementation of the engine events, loaded by EngineEvents;
+ * fields are only filled when the event will be committed
+ */
+public final class RecorderEvents extends EngineEvents {
+	@Override
+	public Object beginBoardConstruction() {
+		final BoardConstructionEvent event = new BoardConstructionEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endBoardConstruction(final Object token, final int pieceCount, final boolean incremental) {
+		final BoardConstructionEvent event = (BoardConstructionEvent) token;
+		if (event.shouldCommit()) {
+			event.pieceCount = pieceCount;
+			event.incremental = incremental;
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginMoveExecute() {
+		final MoveExecuteEvent event = new MoveExecuteEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endMoveExecute(final Object token, final Move move) {
+		final MoveExecuteEvent event = (MoveExecuteEvent) token;
+		if (event.shouldCommit()) {
+			event.moveType = move.getClass().getSimpleName();
+			event.move = move.toString();
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginMakeMove() {
+		final MakeMoveEvent event = new MakeMoveEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endMakeMove(final Object token, final Move move, final MoveStatus status) {
+		final MakeMoveEvent event = (MakeMoveEvent) token;
+		if (event.shouldCommit()) {
+			event.move = String.valueOf(move);
+			event.status = status.toString();
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginCheckmate() {
+		final CheckmateEvent event = new CheckmateEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endCheckmate(final Object token, final boolean inCheck, final boolean hasEscapeMove) {
+		final CheckmateEvent event = (CheckmateEvent) token;
+		if (event.shouldCommit()) {
+			event.inCheck = inCheck;
+			event.hasEscapeMove = hasEscapeMove;
+			event.commit();
+		}
+	}
+
+	@Override
+	public Object beginSearch() {
+		final SearchEvent event = new SearchEvent();
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void endSearch(final Object token, final int depth, final long nodes, final double hitRate, final int score, final Move bestMove) {
+		final SearchEvent event = (SearchEvent) token;
+		if (event.shouldCommit()) {
+			event.depth = depth;
+			event.nodes = nodes;
+			event.hitRate = hitRate;
+			event.score = score;
+			event.bestMove = bestMove == null ? null : bestMove.toString();
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package chess.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Percentage;
+import jdk.jfr.Threshold;
+
+@Name("chess.Search")
+@Label("Search")
+@Category({"Chess", "Search"})
+@Description("Summary of one iterative deepening search")
+@Threshold("0 ms")
+public final class SearchEvent extends jdk.jfr.Event {
+	@Label("Depth")
+	@Description("Deepest completed iteration")
+	public int depth;
+
+	@Label("Nodes")
+	public long nodes;
+
+	@Label("Transposition Table Hit Rate")
+	@Percentage
+	public double hitRate;
+
+	@Label("Score")
+	public int score;
+
+	@Label("Best Move")
+	public String bestMove;
+}
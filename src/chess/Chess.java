@@ -1,9 +1,19 @@
 package chess;
 
+import chess.benchmark.Bench;
+import chess.gui.EventDispatchMonitor;
 import chess.gui.Table;
 
+import java.util.Arrays;
+
 public class Chess {
 	public static void main(String[] args) {
+		if (args.length > 0 && args[0].equals("bench")) {
+			Bench.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+		EventDispatchMonitor.installIfEnabled();
+		Warmup.startIfEnabled();
 		Table.get().show();
 	}
 }
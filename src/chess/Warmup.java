@@ -0,0 +1,102 @@
+package chess;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.board.Move.MoveFactory;
+import chess.engine.board.PositionHistory;
+import chess.engine.player.MoveTransition;
+import chess.engine.player.ai.AlphaBeta;
+import chess.engine.player.ai.StandardBoardEvaluator;
+import chess.engine.player.ai.TimeManager;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * play random games and short searches on a low priority background thread for a
+ * bounded time after startup, so move generation, board construction and search
+ * are compiled before the first click instead of during it; one search is reused
+ * so its tables are allocated once
+ */
+public final class Warmup implements Runnable {
+	/**
+	 * system property holding the warm up time in milliseconds, 0 turns it off
+	 */
+	public static final String TIME_PROPERTY = "chess.warmup";
+	public static final long DEFAULT_MILLIS = 2000;
+	private static final int GAME_PLIES = 80;
+	private static final int SEARCH_DEPTH = 6;
+	private static final long SEARCH_MILLIS = 100;
+
+	private final long deadline;
+	private final Random random;
+	private final AlphaBeta search;
+
+	/**
+	 * @param millis time after which the warm up stops
+	 */
+	public Warmup(final long millis) {
+		this.deadline = System.nanoTime() + millis * 1000000;
+		this.random = new Random(0);
+		this.search = new AlphaBeta(new StandardBoardEvaluator(), SEARCH_DEPTH);
+	}
+
+	/**
+	 * start a warm up thread for the time set by the time property
+	 * @return started thread, null if warm up is off
+	 */
+	public static Thread startIfEnabled() {
+		final long millis = Long.getLong(TIME_PROPERTY, DEFAULT_MILLIS);
+		if (millis <= 0) {
+			return null;
+		}
+		final Thread thread = new Thread(new Warmup(millis), "warmup");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.start();
+		return thread;
+	}
+
+	@Override
+	public void run() {
+		while (!isDone()) {
+			playGame();
+		}
+	}
+
+	/**
+	 * random game along the paths the table takes for a human move, with a short
+	 * engine search every few plies
+	 */
+	private void playGame() {
+		Board board = Board.createStandardBoard();
+		for (int ply = 0; ply < GAME_PLIES && !isDone(); ply++) {
+			final List<Move> moves = board.getCurrentPlayer().getLegalMoves();
+			if (moves.isEmpty() || board.getCurrentPlayer().isInCheckmate() || board.isFiftyMoveDraw() || board.isInsufficientMaterial() || PositionHistory.of(board).repetitionCount(board.getHalfMoveClock()) >= 3) {
+				return;
+			}
+			if (ply % 10 == 5) {
+				search(board);
+			}
+			final Move randomMove = moves.get(random.nextInt(moves.size()));
+			final Move move = MoveFactory.createMove(board, randomMove.getCurrentPositionX(), randomMove.getCurrentPositionY(), randomMove.getDestinationPositionX(), randomMove.getDestinationPositionY());
+			final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+			if (transition.getMoveStatus().isDone()) {
+				board = transition.getToBoard();
+			}
+		}
+	}
+
+	private void search(final Board board) {
+		final long remainingMillis = (deadline - System.nanoTime()) / 1000000;
+		if (remainingMillis <= 0) {
+			return;
+		}
+		search.setTimeManager(TimeManager.fixedTime(Math.min(SEARCH_MILLIS, remainingMillis)));
+		search.execute(board);
+	}
+
+	private boolean isDone() {
+		return System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted();
+	}
+}
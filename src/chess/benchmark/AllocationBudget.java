@@ -0,0 +1,63 @@
+package chess.benchmark;
+
+import chess.engine.board.Board;
+import chess.engine.player.ai.AlphaBeta;
+import chess.engine.player.ai.StandardBoardEvaluator;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * allocation gate for the search path: search the bench positions once to warm up,
+ * then again while reading the bytes allocated by the thread, and fail if the bytes
+ * per node exceed the budget; one search is built up front and its transposition
+ * table cleared per position, so the tables of a new search are not counted
+ */
+public final class AllocationBudget {
+	public static final int DEFAULT_DEPTH = 4;
+	/**
+	 * bytes per node, each node still builds an immutable board for its move;
+	 * just above the 2500 measured at DEFAULT_DEPTH
+	 */
+	public static final long DEFAULT_BUDGET = 2700;
+
+	private AllocationBudget() {
+		throw new RuntimeException("You cannot instantiate me");
+	}
+
+	/**
+	 * search all bench positions on the calling thread
+	 * @param search search to reuse, built before the measurement
+	 * @param boards positions to search
+	 * @return allocated bytes and searched nodes
+	 */
+	public static long[] measure(final AlphaBeta search, final List<Board> boards) {
+		final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		final long threadId = Thread.currentThread().getId();
+		final long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+		long nodes = 0;
+		for (final Board board : boards) {
+			search.getTranspositionTable().clear();
+			search.execute(board);
+			nodes += search.getNodes();
+		}
+		return new long[]{threadBean.getThreadAllocatedBytes(threadId) - bytesBefore, nodes};
+	}
+
+	public static void main(final String[] args) {
+		final long budget = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_BUDGET;
+		final int depth = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_DEPTH;
+		final AlphaBeta search = new AlphaBeta(new StandardBoardEvaluator(), depth);
+		final List<Board> boards = Bench.positions();
+		measure(search, boards);
+		final long[] result = measure(search, boards);
+		final long bytesPerNode = result[0] / Math.max(1, result[1]);
+		System.out.println("Allocated (KB)  : " + result[0] / 1024);
+		System.out.println("Nodes searched  : " + result[1]);
+		System.out.println("Bytes/node      : " + bytesPerNode + " (budget " + budget + ")");
+		if (bytesPerNode > budget) {
+			System.out.println("FAILED: allocation budget exceeded");
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package chess.benchmark;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.player.ai.AlphaBeta;
+import chess.engine.player.ai.StandardBoardEvaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * search a fixed set of positions to a fixed depth, each with a new search and
+ * evaluator so nothing carries over; the total node count is a signature of move
+ * generation, evaluation and search, and the node rate tracks speed
+ */
+public final class Bench {
+	public static final int DEFAULT_DEPTH = 5;
+	private static final int MIDGAME_COUNT = 12, ENDGAME_COUNT = 6;
+
+	private long nodes, nanos;
+
+	/**
+	 * start position, then the benchmark middlegames and endgames
+	 * @return positions searched by the bench
+	 */
+	public static List<Board> positions() {
+		final List<Board> boards = new ArrayList<>();
+		boards.add(Board.createStandardBoard());
+		boards.addAll(BenchmarkPositions.middlegames(MIDGAME_COUNT));
+		boards.addAll(BenchmarkPositions.endgames(ENDGAME_COUNT));
+		return boards;
+	}
+
+	/**
+	 * run the bench
+	 * @param depth search depth
+	 * @param verbose print a line per position
+	 * @return total nodes, the bench signature
+	 */
+	public long run(final int depth, final boolean verbose) {
+		nodes = 0;
+		nanos = 0;
+		final List<Board> boards = positions();
+		for (int i = 0; i < boards.size(); i++) {
+			final AlphaBeta search = new AlphaBeta(new StandardBoardEvaluator(), depth);
+			final long startTime = System.nanoTime();
+			final Move move = search.execute(boards.get(i));
+			nanos += System.nanoTime() - startTime;
+			nodes += search.getNodes();
+			if (verbose) {
+				System.out.printf("position %2d  best %-8s score %6d  nodes %10d%n", i + 1, move, search.getBestScore(), search.getNodes());
+			}
+		}
+		return nodes;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * get search time of the last run, position setup excluded
+	 * @return nanoseconds
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	public long getNodesPerSecond() {
+		return nanos == 0 ? 0 : nodes * 1000000000L / nanos;
+	}
+
+	public static void main(final String[] args) {
+		final int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+		final Bench bench = new Bench();
+		bench.run(depth, true);
+		System.out.println("===========================");
+		System.out.println("Total time (ms) : " + bench.getNanos() / 1000000);
+		System.out.println("Nodes searched  : " + bench.getNodes());
+		System.out.println("Nodes/second    : " + bench.getNodesPerSecond());
+	}
+}
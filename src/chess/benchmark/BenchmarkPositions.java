@@ -0,0 +1,101 @@
+package chess.benchmark;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.player.MoveTransition;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * fixed sets of positions reached by seeded random games, the same on every run
+ */
+public final class BenchmarkPositions {
+	private static final int MIDGAME_PLIES = 24;
+	private static final int ENDGAME_PIECES = 10;
+	private static final int MAX_PLIES = 400;
+
+	private BenchmarkPositions() {
+		throw new RuntimeException("You cannot instantiate me");
+	}
+
+	/**
+	 * positions after MIDGAME_PLIES random plies
+	 * @param count number of positions
+	 * @return positions, each with its game as transition moves
+	 */
+	public static List<Board> middlegames(final int count) {
+		final List<Board> boards = new ArrayList<>();
+		for (int seed = 0; boards.size() < count; seed++) {
+			final Board board = randomGame(seed, MIDGAME_PLIES, 0, false);
+			if (board != null) {
+				boards.add(board);
+			}
+		}
+		return ImmutableList.copyOf(boards);
+	}
+
+	/**
+	 * positions with at most ENDGAME_PIECES pieces, reached by random games preferring captures
+	 * @param count number of positions
+	 * @return positions, each with its game as transition moves
+	 */
+	public static List<Board> endgames(final int count) {
+		final List<Board> boards = new ArrayList<>();
+		for (int seed = 0; boards.size() < count; seed++) {
+			final Board board = randomGame(seed, MAX_PLIES, ENDGAME_PIECES, true);
+			if (board != null) {
+				boards.add(board);
+			}
+		}
+		return ImmutableList.copyOf(boards);
+	}
+
+	/**
+	 * play random legal moves
+	 * @param seed random seed
+	 * @param plies maximum plies
+	 * @param pieceCount stop once at most this many pieces are left, 0 to play all plies
+	 * @param preferCaptures play a capture whenever there is one
+	 * @return last board, null if the game ended or never got down to pieceCount
+	 */
+	public static Board randomGame(final long seed, final int plies, final int pieceCount, final boolean preferCaptures) {
+		final Random random = new Random(seed);
+		Board board = Board.createStandardBoard();
+		for (int ply = 0; ply < plies; ply++) {
+			if (pieceCount > 0 && countPieces(board) <= pieceCount) {
+				return board;
+			}
+			final List<Move> moves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+			if (preferCaptures) {
+				final List<Move> captures = new ArrayList<>();
+				for (final Move move : moves) {
+					if (move.isAttack()) {
+						captures.add(move);
+					}
+				}
+				if (!captures.isEmpty() && random.nextInt(4) != 0) {
+					moves.retainAll(captures);
+				}
+			}
+			Board nextBoard = null;
+			while (nextBoard == null && !moves.isEmpty()) {
+				final MoveTransition transition = board.getCurrentPlayer().makeMove(moves.remove(random.nextInt(moves.size())));
+				if (transition.getMoveStatus().isDone()) {
+					nextBoard = transition.getToBoard();
+				}
+			}
+			if (nextBoard == null || nextBoard.getCurrentPlayer().getLegalMoves().isEmpty()) {
+				return null;
+			}
+			board = nextBoard;
+		}
+		return pieceCount > 0 && countPieces(board) > pieceCount ? null : board;
+	}
+
+	private static int countPieces(final Board board) {
+		return board.getWhitePiece().size() + board.getBlackPiece().size();
+	}
+}
@@ -0,0 +1,136 @@
+package chess.benchmark;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.board.Move.MoveFactory;
+import chess.engine.piece.Piece;
+import chess.engine.piece.Piece.PieceType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * microbenchmarks of board construction, move execution, move generation and the
+ * player checks, every result with time and allocation per call
+ */
+public final class EngineBenchmarks {
+	private static final int POSITION_COUNT = 8;
+
+	private final Microbenchmark microbenchmark;
+	private final String filter;
+	private final List<Microbenchmark.Result> results;
+
+	/**
+	 * @param microbenchmark runner
+	 * @param filter only run benchmarks whose name contains this, empty for all
+	 */
+	public EngineBenchmarks(final Microbenchmark microbenchmark, final String filter) {
+		this.microbenchmark = microbenchmark;
+		this.filter = filter;
+		this.results = new ArrayList<>();
+	}
+
+	public List<Microbenchmark.Result> getResults() {
+		return results;
+	}
+
+	public void runAll() {
+		final List<Board> middlegames = BenchmarkPositions.middlegames(POSITION_COUNT);
+		final List<Board> endgames = BenchmarkPositions.endgames(POSITION_COUNT);
+		run("Board.createStandardBoard", Board::createStandardBoard);
+		final List<Board.Builder> middlegameBuilders = builders(middlegames);
+		benchmarkConstructor("middlegame", middlegameBuilders);
+		benchmarkConstructor("endgame", builders(endgames));
+		for (final Map.Entry<String, Move> sample : sampleMoves().entrySet()) {
+			final Move move = sample.getValue();
+			run(sample.getKey() + ".execute", move::execute);
+			run(sample.getKey() + ".undo", move::undo);
+		}
+		for (final PieceType type : PieceType.values()) {
+			final List<Piece> pieces = new ArrayList<>();
+			final List<Board> boards = new ArrayList<>();
+			for (final Board board : middlegames) {
+				for (final Piece piece : board.getCurrentPlayer().getActivePieces()) {
+					if (piece.getPieceType() == type) {
+						pieces.add(piece);
+						boards.add(board);
+					}
+				}
+			}
+			final int[] next = new int[1];
+			run("Piece.calculateLegalMoves " + type.name(), () -> {
+				final int index = next[0]++ % pieces.size();
+				return pieces.get(index).calculateLegalMoves(boards.get(index));
+			});
+		}
+		final List<Move> moves = new ArrayList<>();
+		for (final Board board : middlegames) {
+			moves.addAll(board.getCurrentPlayer().getLegalMoves());
+		}
+		final int[] next = new int[1];
+		run("Player.makeMove", () -> {
+			final Move move = moves.get(next[0]++ % moves.size());
+			return move.getBoard().getCurrentPlayer().makeMove(move);
+		});
+		run("new Board + Player.isInCheckmate", () -> middlegameBuilders.get(next[0]++ % middlegameBuilders.size()).build().getCurrentPlayer().isInCheckmate());
+		run("MoveFactory.createMove", () -> {
+			final Move move = moves.get(next[0]++ % moves.size());
+			return MoveFactory.createMove(move.getBoard(), move.getCurrentPositionX(), move.getCurrentPositionY(), move.getDestinationPositionX(), move.getDestinationPositionY());
+		});
+	}
+
+	/**
+	 * rebuild boards from their pieces, without a transition move everything is computed from scratch
+	 */
+	private void benchmarkConstructor(final String name, final List<Board.Builder> builders) {
+		final int[] next = new int[1];
+		run("new Board " + name, () -> builders.get(next[0]++ % builders.size()).build());
+	}
+
+	private static List<Board.Builder> builders(final List<Board> boards) {
+		final List<Board.Builder> builders = new ArrayList<>();
+		for (final Board board : boards) {
+			final Board.Builder builder = new Board.Builder();
+			for (final Piece piece : board.getWhitePiece()) {
+				builder.setPiece(piece);
+			}
+			for (final Piece piece : board.getBlackPiece()) {
+				builder.setPiece(piece);
+			}
+			builder.setNextMoveMaker(board.getCurrentPlayer().getAlliance());
+			builders.add(builder);
+		}
+		return builders;
+	}
+
+	/**
+	 * first move of every Move subclass met in random games
+	 */
+	private static Map<String, Move> sampleMoves() {
+		final Map<String, Move> samples = new LinkedHashMap<>();
+		for (int seed = 0; seed < 200 && samples.size() < 9; seed++) {
+			for (Board board = BenchmarkPositions.randomGame(seed, 120, 0, true); board != null && board.getTransitionMove() != null; board = board.getTransitionMove().getBoard()) {
+				final Move move = board.getTransitionMove();
+				if (move.getMovedPiece() != null && !samples.containsKey(move.getClass().getSimpleName())) {
+					samples.put(move.getClass().getSimpleName(), move);
+				}
+			}
+		}
+		return samples;
+	}
+
+	private void run(final String name, final Microbenchmark.Operation operation) {
+		if (name.contains(filter)) {
+			final Microbenchmark.Result result = microbenchmark.run(name, operation);
+			results.add(result);
+			System.out.println(result);
+		}
+	}
+
+	public static void main(final String[] args) {
+		final EngineBenchmarks benchmarks = new EngineBenchmarks(new Microbenchmark(), args.length > 0 ? args[0] : "");
+		benchmarks.runAll();
+	}
+}
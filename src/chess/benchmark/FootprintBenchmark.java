@@ -0,0 +1,210 @@
+package chess.benchmark;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.piece.Piece;
+import chess.gui.Table.MoveLog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * retained heap per board and per game: build many copies, keep them reachable and
+ * read the used heap after collecting garbage before and after; the build time of
+ * the copies is reported next to it, so a change trading memory for speed shows both
+ */
+public final class FootprintBenchmark {
+	public interface Factory {
+		Object create(int index);
+	}
+
+	private static final int BOARD_COPIES = 4000;
+	private static final int GAME_PLY_BUDGET = 40000;
+	private static final int[] GAME_PLIES = {20, 40, 80, 160};
+	private static final int GC_ROUNDS = 4;
+
+	private final List<Result> results;
+	private volatile Object sink;
+
+	public FootprintBenchmark() {
+		this.results = new ArrayList<>();
+	}
+
+	public List<Result> getResults() {
+		return results;
+	}
+
+	/**
+	 * measure the retained size of one kind of object
+	 * @param name name printed with the result
+	 * @param copies number of objects kept alive at once
+	 * @param units units per object, plies for a game, 1 otherwise
+	 * @param factory creates the object of an index
+	 * @return retained bytes and build time per object
+	 */
+	public Result measure(final String name, final int copies, final int units, final Factory factory) {
+		final Object[] retained = new Object[copies];
+		final long heapBefore = usedHeap();
+		final long startTime = System.nanoTime();
+		for (int i = 0; i < copies; i++) {
+			retained[i] = factory.create(i);
+		}
+		final long nanos = System.nanoTime() - startTime;
+		final long heapAfter = usedHeap();
+		sink = retained;
+		final Result result = new Result(name, (heapAfter - heapBefore) / copies, nanos / copies, units);
+		sink = null;
+		results.add(result);
+		System.out.println(result);
+		return result;
+	}
+
+	public void runAll() {
+		final List<Board> middlegames = BenchmarkPositions.middlegames(BOARD_COPIES / 100);
+		final List<Board> endgames = BenchmarkPositions.endgames(BOARD_COPIES / 100);
+		final List<Board.Builder> middlegameBuilders = builders(middlegames);
+		final List<Board.Builder> endgameBuilders = builders(endgames);
+		final List<Move> moves = new ArrayList<>();
+		for (final Board board : middlegames) {
+			moves.addAll(board.getCurrentPlayer().getLegalMoves());
+		}
+		measure("Board standard", BOARD_COPIES, 1, index -> Board.createStandardBoard());
+		measure("Board standard + legal moves", BOARD_COPIES, 1, index -> withLegalMoves(Board.createStandardBoard()));
+		measure("Board middlegame", BOARD_COPIES, 1, index -> middlegameBuilders.get(index % middlegameBuilders.size()).build());
+		measure("Board middlegame + legal moves", BOARD_COPIES, 1, index -> withLegalMoves(middlegameBuilders.get(index % middlegameBuilders.size()).build()));
+		measure("Board endgame", BOARD_COPIES, 1, index -> endgameBuilders.get(index % endgameBuilders.size()).build());
+		measure("Board endgame + legal moves", BOARD_COPIES, 1, index -> withLegalMoves(endgameBuilders.get(index % endgameBuilders.size()).build()));
+		measure("Move.execute middlegame", BOARD_COPIES, 1, index -> moves.get(index % moves.size()).execute());
+		for (final int plies : GAME_PLIES) {
+			final int copies = Math.max(10, GAME_PLY_BUDGET / plies);
+			final long[] seed = new long[1];
+			measure("MoveLog " + plies + " plies", copies, plies, index -> {
+				Board board = null;
+				while (board == null) {
+					board = BenchmarkPositions.randomGame(seed[0]++, plies, 0, false);
+				}
+				return moveLog(board);
+			});
+		}
+	}
+
+	/**
+	 * generate the lazy move lists of both players, as the gui does for every board it shows
+	 */
+	private static Board withLegalMoves(final Board board) {
+		board.getCurrentPlayer().getLegalMoves();
+		board.getCurrentPlayer().getOpponent().getLegalMoves();
+		return board;
+	}
+
+	/**
+	 * move log of the game leading to a board; only the log is kept, every move pins
+	 * the board it was made on and through it the rest of the game
+	 */
+	private static MoveLog moveLog(final Board board) {
+		final List<Move> moves = new ArrayList<>();
+		for (Board current = board; current.getTransitionMove() != null; current = current.getTransitionMove().getBoard()) {
+			moves.add(0, current.getTransitionMove());
+		}
+		final MoveLog moveLog = new MoveLog();
+		for (final Move move : moves) {
+			moveLog.addMove(move);
+		}
+		return moveLog;
+	}
+
+	/**
+	 * builders of the positions, boards built from them share their pieces like the boards of a game do
+	 */
+	private static List<Board.Builder> builders(final List<Board> boards) {
+		final List<Board.Builder> builders = new ArrayList<>();
+		for (final Board board : boards) {
+			final Board.Builder builder = new Board.Builder();
+			for (final Piece piece : board.getWhitePiece()) {
+				builder.setPiece(piece);
+			}
+			for (final Piece piece : board.getBlackPiece()) {
+				builder.setPiece(piece);
+			}
+			builder.setNextMoveMaker(board.getCurrentPlayer().getAlliance());
+			builders.add(builder);
+		}
+		return builders;
+	}
+
+	/**
+	 * used heap once garbage collection no longer frees anything
+	 */
+	private static long usedHeap() {
+		final Runtime runtime = Runtime.getRuntime();
+		long used = runtime.totalMemory() - runtime.freeMemory();
+		for (int round = 0; round < GC_ROUNDS; round++) {
+			System.gc();
+			try {
+				Thread.sleep(20);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+		return used;
+	}
+
+	public static final class Result {
+		private final String name;
+		private final long bytes, nanos;
+		private final int units;
+
+		private Result(final String name, final long bytes, final long nanos, final int units) {
+			this.name = name;
+			this.bytes = bytes;
+			this.nanos = nanos;
+			this.units = units;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * get retained heap of one object
+		 * @return bytes
+		 */
+		public long getBytes() {
+			return bytes;
+		}
+
+		/**
+		 * get build time of one object
+		 * @return nanoseconds
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * get retained heap per ply of a game, per object otherwise
+		 * @return bytes
+		 */
+		public long getBytesPerUnit() {
+			return bytes / units;
+		}
+
+		/**
+		 * get objects built per second
+		 * @return build rate
+		 */
+		public double getThroughput() {
+			return nanos == 0 ? 0 : 1e9 / nanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-40s %10d B %8d B/unit %12.1f us %12.0f ops/s", name, bytes, getBytesPerUnit(), nanos / 1000.0, getThroughput());
+		}
+	}
+
+	public static void main(final String[] args) {
+		new FootprintBenchmark().runAll();
+	}
+}
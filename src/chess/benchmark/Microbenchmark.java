@@ -0,0 +1,138 @@
+package chess.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * small benchmark runner: warm up for a while, then time a number of iterations of
+ * batched calls and read the bytes the thread allocated during them; results are
+ * stored in a volatile field so the JIT cannot drop the measured work
+ */
+public final class Microbenchmark {
+	public interface Operation {
+		Object run();
+	}
+
+	private final long warmupNanos, iterationNanos;
+	private final int iterations;
+	private final ThreadMXBean threadBean;
+	private volatile Object sink;
+
+	/**
+	 * @param warmupMillis warm up time of every benchmark
+	 * @param iterationMillis time of one measured iteration
+	 * @param iterations number of measured iterations
+	 */
+	public Microbenchmark(final long warmupMillis, final long iterationMillis, final int iterations) {
+		this.warmupNanos = warmupMillis * 1000000;
+		this.iterationNanos = iterationMillis * 1000000;
+		this.iterations = iterations;
+		this.threadBean = ManagementFactory.getThreadMXBean();
+	}
+
+	public Microbenchmark() {
+		this(1000, 500, 5);
+	}
+
+	/**
+	 * measure one operation
+	 * @param name name printed with the result
+	 * @param operation work of one call
+	 * @return mean time and allocation per call
+	 */
+	public Result run(final String name, final Operation operation) {
+		final long warmupEnd = System.nanoTime() + warmupNanos;
+		int batchSize = 1;
+		while (System.nanoTime() < warmupEnd) {
+			final long batchStart = System.nanoTime();
+			runBatch(operation, batchSize);
+			if (System.nanoTime() - batchStart < iterationNanos / 100) {
+				batchSize *= 2;
+			}
+		}
+		final double[] nanosPerOperation = new double[iterations];
+		long totalOperations = 0, totalBytes = 0;
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			long operations = 0;
+			final long bytesBefore = allocatedBytes();
+			final long startTime = System.nanoTime();
+			long elapsed;
+			do {
+				runBatch(operation, batchSize);
+				operations += batchSize;
+				elapsed = System.nanoTime() - startTime;
+			} while (elapsed < iterationNanos);
+			totalBytes += allocatedBytes() - bytesBefore;
+			totalOperations += operations;
+			nanosPerOperation[iteration] = (double) elapsed / operations;
+		}
+		double mean = 0;
+		for (final double value : nanosPerOperation) {
+			mean += value / iterations;
+		}
+		double variance = 0;
+		for (final double value : nanosPerOperation) {
+			variance += (value - mean) * (value - mean) / Math.max(1, iterations - 1);
+		}
+		final long bytesPerOperation = totalBytes < 0 ? -1 : totalBytes / totalOperations;
+		return new Result(name, mean, Math.sqrt(variance), bytesPerOperation);
+	}
+
+	private void runBatch(final Operation operation, final int batchSize) {
+		for (int i = 0; i < batchSize; i++) {
+			sink = operation.run();
+		}
+	}
+
+	/**
+	 * bytes allocated by the current thread, negative if the jvm cannot tell
+	 */
+	private long allocatedBytes() {
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return Long.MIN_VALUE / 2;
+	}
+
+	public static final class Result {
+		private final String name;
+		private final double nanosPerOperation, error;
+		private final long bytesPerOperation;
+
+		private Result(final String name, final double nanosPerOperation, final double error, final long bytesPerOperation) {
+			this.name = name;
+			this.nanosPerOperation = nanosPerOperation;
+			this.error = error;
+			this.bytesPerOperation = bytesPerOperation;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public double getNanosPerOperation() {
+			return nanosPerOperation;
+		}
+
+		/**
+		 * get standard deviation over iterations
+		 * @return deviation in nanoseconds per call
+		 */
+		public double getError() {
+			return error;
+		}
+
+		/**
+		 * get allocation per call
+		 * @return bytes, -1 if the jvm cannot measure it
+		 */
+		public long getBytesPerOperation() {
+			return bytesPerOperation;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-40s %12.1f ns/op %10.1f %10d B/op", name, nanosPerOperation, error, bytesPerOperation);
+		}
+	}
+}
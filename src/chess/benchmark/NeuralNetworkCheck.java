@@ -0,0 +1,79 @@
+package chess.benchmark;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.player.MoveTransition;
+import chess.engine.player.ai.NeuralBoardEvaluator;
+import chess.engine.player.ai.NeuralNetwork;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * random games evaluated with a network of random weights; after every move the
+ * accumulators derived from the parent board have to match a full refresh, exit
+ * status 1 otherwise
+ */
+public final class NeuralNetworkCheck {
+	public static final int DEFAULT_GAMES = 50;
+	private static final int MAX_PLIES = 300;
+	private static final int ACCUMULATOR_SIZE = 32;
+	private static final int HIDDEN_SIZE = 8;
+
+	private NeuralNetworkCheck() {
+		throw new RuntimeException("You cannot instantiate me");
+	}
+
+	/**
+	 * play games and check the accumulators of every board
+	 * @param games number of games
+	 * @return null if every board matched, otherwise a description of the failure
+	 */
+	public static String check(final int games) {
+		final NeuralBoardEvaluator evaluator = new NeuralBoardEvaluator(NeuralNetwork.random(ACCUMULATOR_SIZE, HIDDEN_SIZE, HIDDEN_SIZE, 0));
+		final Random random = new Random(0);
+		long boards = 0;
+		for (int game = 0; game < games; game++) {
+			Board board = Board.createStandardBoard();
+			for (int ply = 0; ply < MAX_PLIES && board != null; ply++) {
+				if (!evaluator.matchesRefresh(board)) {
+					return "game " + game + " ply " + ply + ": accumulators after " + board.getTransitionMove() + " differ from a refresh";
+				}
+				boards++;
+				board = randomMove(board, random);
+			}
+		}
+		System.out.println(boards + " boards, " + evaluator.getAccumulatorCache().getUpdates() + " updates, " + evaluator.getAccumulatorCache().getRefreshes() + " refreshes");
+		return null;
+	}
+
+	/**
+	 * play a random legal move, a capture or promotion most of the time if there is one
+	 * @return next board, null if the game is over
+	 */
+	private static Board randomMove(final Board board, final Random random) {
+		final List<Move> moves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+		final List<Move> noisyMoves = new ArrayList<>(board.getCurrentPlayer().getAttackMoves());
+		if (!noisyMoves.isEmpty() && random.nextInt(3) != 0) {
+			moves.retainAll(noisyMoves);
+		}
+		while (!moves.isEmpty()) {
+			final MoveTransition transition = board.getCurrentPlayer().makeMove(moves.remove(random.nextInt(moves.size())));
+			if (transition.getMoveStatus().isDone()) {
+				return transition.getToBoard();
+			}
+		}
+		return null;
+	}
+
+	public static void main(final String[] args) {
+		final int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+		final String failure = check(games);
+		if (failure != null) {
+			System.out.println("FAILED: " + failure);
+			System.exit(1);
+		}
+		System.out.println(games + " games match a full refresh");
+	}
+}
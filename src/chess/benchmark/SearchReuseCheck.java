@@ -0,0 +1,56 @@
+package chess.benchmark;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.player.MoveTransition;
+import chess.engine.player.ai.MonteCarloTreeSearch;
+import chess.engine.player.ai.StandardBoardEvaluator;
+
+/**
+ * self play with one monte carlo search, so every call after the first starts from
+ * a subtree of the previous one; each returned move has to belong to the board that
+ * was passed in and be accepted by makeMove, exit status 1 otherwise
+ */
+public final class SearchReuseCheck {
+	public static final int DEFAULT_PLIES = 2;
+	private static final int ITERATIONS = 2000;
+
+	private SearchReuseCheck() {
+		throw new RuntimeException("You cannot instantiate me");
+	}
+
+	/**
+	 * play moves chosen by one search instance
+	 * @param plies number of calls
+	 * @return null if every move was accepted, otherwise a description of the failure
+	 */
+	public static String check(final int plies) {
+		final MonteCarloTreeSearch search = new MonteCarloTreeSearch(new StandardBoardEvaluator(), ITERATIONS, 2);
+		Board board = Board.createStandardBoard();
+		for (int ply = 0; ply < plies; ply++) {
+			final Move move = search.execute(board);
+			if (move == null) {
+				return null;
+			}
+			if (move.getBoard() != board) {
+				return "ply " + ply + ": " + move + " belongs to another board";
+			}
+			final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+			if (!transition.getMoveStatus().isDone()) {
+				return "ply " + ply + ": " + move + " returned " + transition.getMoveStatus();
+			}
+			board = transition.getToBoard();
+		}
+		return null;
+	}
+
+	public static void main(final String[] args) {
+		final int plies = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PLIES;
+		final String failure = check(plies);
+		if (failure != null) {
+			System.out.println("FAILED: " + failure);
+			System.exit(1);
+		}
+		System.out.println(plies + " plies with subtree reuse accepted");
+	}
+}
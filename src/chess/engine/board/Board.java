@@ -1,6 +1,8 @@
 package chess.engine.board;
 
 import chess.engine.Alliance;
+import chess.engine.board.Move.CastleMove;
+import chess.engine.jfr.EngineEvents;
 import chess.engine.piece.*;
 import chess.engine.player.BlackPlayer;
 import chess.engine.player.Player;
@@ -9,33 +11,147 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 public class Board {
-	private final List<Tile> gameBoard;
+	private final Tile[] gameBoard;
 	private final List<Piece> whitePiece, blackPiece;
 	private final WhitePlayer whitePlayer;
 	private final BlackPlayer blackPlayer;
 	private final Player currentPlayer;
 	private final Pawn enPassantPawn;
+	private final Move transitionMove;
+	private final int midgameScore, endgameScore, gamePhase;
+	private final int halfMoveClock;
+	private final long zobristHash, pieceZobristHash, pawnZobristHash;
 
 	public Board(Builder builder) {
+		final Object event = EngineEvents.get().beginBoardConstruction();
 		this.gameBoard = createGameBoard(builder);
 		this.whitePiece = calculateActivePiece(this.gameBoard, Alliance.WHITE);
 		this.blackPiece = calculateActivePiece(this.gameBoard, Alliance.BLACK);
 		this.enPassantPawn = builder.enPassantPawn;
-		final List<Move> whiteStandardLegalMoves = calculateLegalMove(this.whitePiece), blackStandardLegalMoves = calculateLegalMove(this.blackPiece);
-		this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-		this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
+		this.transitionMove = builder.transitionMove;
+		this.halfMoveClock = builder.halfMoveClock;
+		final Board previousBoard = this.transitionMove != null ? this.transitionMove.getBoard() : null;
+		final int[] scores;
+		final long[] keys;
+		if (previousBoard != null) {
+			scores = new int[]{previousBoard.midgameScore, previousBoard.endgameScore, previousBoard.gamePhase};
+			keys = new long[]{previousBoard.pieceZobristHash, previousBoard.pawnZobristHash};
+			applyTransition(this.transitionMove, scores, keys);
+		} else {
+			scores = new int[3];
+			keys = new long[2];
+			for (final Piece piece : getAllPieces()) {
+				applyPiece(piece, 1, scores, keys);
+			}
+		}
+		this.midgameScore = scores[0];
+		this.endgameScore = scores[1];
+		this.gamePhase = scores[2];
+		this.pieceZobristHash = keys[0];
+		this.pawnZobristHash = keys[1];
+		this.zobristHash = this.pieceZobristHash ^ Zobrist.stateKey(builder.nextMoveMaker, calculateCastlingRights(), this.enPassantPawn);
+		this.whitePlayer = new WhitePlayer(this);
+		this.blackPlayer = new BlackPlayer(this);
 		this.currentPlayer = builder.nextMoveMaker.choosePlayer(whitePlayer, blackPlayer);
+		EngineEvents.get().endBoardConstruction(event, whitePiece.size() + blackPiece.size(), previousBoard != null);
 	}
 
 	public Pawn getEnPassantPawn() {
 		return enPassantPawn;
 	}
 
+	/**
+	 * get the move that produced this board
+	 * @return transition move, null for a board built from scratch
+	 */
+	public Move getTransitionMove() {
+		return transitionMove;
+	}
+
+	/**
+	 * get number of half moves since the last capture or pawn move
+	 * @return half move clock
+	 */
+	public int getHalfMoveClock() {
+		return halfMoveClock;
+	}
+
+	/**
+	 * fifty move rule: fifty moves of each player without capture or pawn move
+	 * @return true if the game can be claimed drawn
+	 */
+	public boolean isFiftyMoveDraw() {
+		return halfMoveClock >= 100;
+	}
+
+	/**
+	 * neither player can mate: king against king, king and minor piece against king,
+	 * or kings with bishops that all stand on the same square color
+	 * @return true if the game is drawn
+	 */
+	public boolean isInsufficientMaterial() {
+		int knights = 0, bishops = 0, bishopSquareColors = 0;
+		for (final Piece piece : getAllPieces()) {
+			switch (piece.getPieceType()) {
+				case KING:
+					break;
+				case KNIGHT:
+					knights++;
+					break;
+				case BISHOP:
+					bishops++;
+					bishopSquareColors |= 1 << ((piece.getPiecePositionX() + piece.getPiecePositionY()) % 2);
+					break;
+				default:
+					return false;
+			}
+		}
+		return knights + bishops <= 1 || (knights == 0 && bishopSquareColors != 3);
+	}
+
+	/**
+	 * get midgame material and piece square score
+	 * @return score from white point of view
+	 */
+	public int getMidgameScore() {
+		return midgameScore;
+	}
+
+	/**
+	 * get endgame material and piece square score
+	 * @return score from white point of view
+	 */
+	public int getEndgameScore() {
+		return endgameScore;
+	}
+
+	/**
+	 * get zobrist hash of the whole position
+	 * @return hash of pieces, player to move, castling rights and en passant file
+	 */
+	public long getZobristHash() {
+		return zobristHash;
+	}
+
+	/**
+	 * get zobrist hash of pawns only
+	 * @return hash of pawn placement
+	 */
+	public long getPawnZobristHash() {
+		return pawnZobristHash;
+	}
+
+	/**
+	 * get game phase
+	 * @return PieceSquareTable.MAX_PHASE in the opening, 0 with only kings and pawns
+	 */
+	public int getGamePhase() {
+		return gamePhase;
+	}
+
 	/**
 	 * get white piece
 	 * @return white piece
@@ -79,18 +195,61 @@ public class Board {
 	}
 
 	/**
-	 * calculate legal move
-	 * for each piece in pieces
-	 * add all legal moves of each piece
-	 * @param pieces list of alive piece
-	 * @return list legal moves of all piece
+	 * apply the change caused by a move: remove the moved piece from its source,
+	 * add whatever stands on the destination (promoted piece included),
+	 * remove the captured piece and shift the castling rook
+	 * @param move move from previous board to this board
+	 * @param scores midgame, endgame and phase of previous board
+	 * @param keys piece and pawn hash of previous board
+	 */
+	private void applyTransition(final Move move, final int[] scores, final long[] keys) {
+		final Piece movedPiece = move.getMovedPiece();
+		if (movedPiece == null) {
+			return;
+		}
+		applyPiece(movedPiece, -1, scores, keys);
+		applyPiece(getTile(move.getDestinationPositionX(), move.getDestinationPositionY()).getPiece(), 1, scores, keys);
+		if (move.isAttack()) {
+			applyPiece(move.getAttackedPiece(), -1, scores, keys);
+		}
+		if (move.isCastlingMove()) {
+			final CastleMove castleMove = (CastleMove) move;
+			applyPiece(castleMove.getCastleRook(), -1, scores, keys);
+			applyPiece(getTile(castleMove.getCastleRookPositionX(), castleMove.getCastleRookPositionY()).getPiece(), 1, scores, keys);
+		}
+	}
+
+	private static void applyPiece(final Piece piece, final int sign, final int[] scores, final long[] keys) {
+		scores[0] += sign * PieceSquareTable.midgame(piece);
+		scores[1] += sign * PieceSquareTable.endgame(piece);
+		scores[2] += sign * PieceSquareTable.phase(piece);
+		final long pieceKey = Zobrist.pieceKey(piece);
+		keys[0] ^= pieceKey;
+		if (piece.getPieceType() == Piece.PieceType.PAWN) {
+			keys[1] ^= pieceKey;
+		}
+	}
+
+	/**
+	 * castling rights as seen by calculateKingCastles: king and rook still on their first move
+	 * @return castling bits, see Zobrist.WHITE_KING_SIDE ...
 	 */
-	private List<Move> calculateLegalMove(List<Piece> pieces) {
-		final List<Move> legalMoves = new ArrayList<>();
-		for (final Piece piece : pieces) {
-			legalMoves.addAll(piece.calculateLegalMoves(this));
+	private int calculateCastlingRights() {
+		int castlingRights = 0;
+		if (isUnmovedPiece(4, 7, Alliance.WHITE, Piece.PieceType.KING)) {
+			castlingRights |= isUnmovedPiece(7, 7, Alliance.WHITE, Piece.PieceType.ROOK) ? Zobrist.WHITE_KING_SIDE : 0;
+			castlingRights |= isUnmovedPiece(0, 7, Alliance.WHITE, Piece.PieceType.ROOK) ? Zobrist.WHITE_QUEEN_SIDE : 0;
 		}
-		return ImmutableList.copyOf(legalMoves);
+		if (isUnmovedPiece(4, 0, Alliance.BLACK, Piece.PieceType.KING)) {
+			castlingRights |= isUnmovedPiece(7, 0, Alliance.BLACK, Piece.PieceType.ROOK) ? Zobrist.BLACK_KING_SIDE : 0;
+			castlingRights |= isUnmovedPiece(0, 0, Alliance.BLACK, Piece.PieceType.ROOK) ? Zobrist.BLACK_QUEEN_SIDE : 0;
+		}
+		return castlingRights;
+	}
+
+	private boolean isUnmovedPiece(final int positionX, final int positionY, final Alliance alliance, final Piece.PieceType pieceType) {
+		final Piece piece = getTile(positionX, positionY).getPiece();
+		return piece != null && piece.getPieceAlliance() == alliance && piece.getPieceType() == pieceType && piece.isFirstMove();
 	}
 
 	/**
@@ -99,7 +258,7 @@ public class Board {
 	 * @param alliance white or black
 	 * @return list of active piece
 	 */
-	private static List<Piece> calculateActivePiece(final List<Tile> gameBoard, final Alliance alliance) {
+	private static List<Piece> calculateActivePiece(final Tile[] gameBoard, final Alliance alliance) {
 		final List<Piece> activePieces = new ArrayList<>();
 		for (final Tile tile : gameBoard) {
 			if (tile.isTileOccupied()) {
@@ -119,22 +278,26 @@ public class Board {
 	 * @return tile has coordinate [x, y]
 	 */
 	public Tile getTile(final int positionX, final int positionY) {
-		return gameBoard.get(positionX + positionY * 8);
+		return gameBoard[positionX + positionY * 8];
 	}
 
 	/**
-	 * draw a game board
+	 * draw a game board, the array never leaves the board so it needs no immutable copy;
+	 * tiles of the previous board are shared where the same piece stayed on them
 	 * @param builder builder
-	 * @return list of tiles
+	 * @return tiles indexed by x + 8 * y
 	 */
-	private static List<Tile> createGameBoard(Builder builder) {
+	private static Tile[] createGameBoard(Builder builder) {
+		final Tile[] previousTiles = builder.transitionMove != null && builder.transitionMove.getBoard() != null ? builder.transitionMove.getBoard().gameBoard : null;
 		final Tile[] tiles = new Tile[64];
 		for (int i = 0; i < 8; i++) {
 			for (int j = 0; j < 8; j++) {
-				tiles[i + 8 * j] = Tile.createTile(i, j, builder.boardConfig.get(i + 8 * j));
+				final Piece piece = builder.boardConfig[i + 8 * j];
+				final Tile previousTile = previousTiles != null ? previousTiles[i + 8 * j] : null;
+				tiles[i + 8 * j] = previousTile != null && piece != null && previousTile.getPiece() == piece ? previousTile : Tile.createTile(i, j, piece);
 			}
 		}
-		return ImmutableList.copyOf(tiles);
+		return tiles;
 	}
 
 	/**
@@ -205,16 +368,18 @@ public class Board {
 	}
 
 	public static class Builder {
-		private final Map<Integer, Piece> boardConfig;
+		private final Piece[] boardConfig;
 		private Alliance nextMoveMaker;
 		private Pawn enPassantPawn;
+		private Move transitionMove;
+		private int halfMoveClock;
 
 		public Builder() {
-			this.boardConfig = new HashMap<>();
+			this.boardConfig = new Piece[64];
 		}
 
 		public void setPiece(Piece piece) {
-			this.boardConfig.put(piece.getPiecePositionX() + 8 * piece.getPiecePositionY(), piece);
+			this.boardConfig[piece.getPiecePositionX() + 8 * piece.getPiecePositionY()] = piece;
 		}
 
 		public void setNextMoveMaker(Alliance nextMoveMaker) {
@@ -228,5 +393,13 @@ public class Board {
 		public void setEnPassantPawn(Pawn enPassantPawn) {
 			this.enPassantPawn = enPassantPawn;
 		}
+
+		public void setMoveTransition(Move transitionMove) {
+			this.transitionMove = transitionMove;
+		}
+
+		public void setHalfMoveClock(int halfMoveClock) {
+			this.halfMoveClock = halfMoveClock;
+		}
 	}
 }
@@ -1,6 +1,17 @@
 package chess.engine.board;
 
+import chess.engine.Alliance;
+import chess.engine.piece.Piece;
+import chess.engine.piece.Piece.PieceType;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
 public class BoardUtils {
+	private static final int[][] KNIGHT_OFFSETS = {{1, 2}, {1, -2}, {-1, 2}, {-1, -2}, {2, 1}, {2, -1}, {-2, 1}, {-2, -1}};
+	private static final int[][] KING_OFFSETS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
 	private BoardUtils() {
 		throw new RuntimeException("You cannot instantiate me");
 	}
@@ -66,4 +77,113 @@ public class BoardUtils {
 	public static boolean isValidTileCoordinate(int positionX, int positionY) {
 		return positionX >= 0 && positionX <= 7 && positionY >= 0 && positionY <= 7;
 	}
+
+	/**
+	 * is tile [x, y] attacked by a piece of alliance, found by looking outward from
+	 * the tile instead of generating the moves of every enemy piece
+	 * @param board current board
+	 * @param positionX x
+	 * @param positionY y
+	 * @param alliance alliance of attacking pieces
+	 * @return true if attacked
+	 */
+	public static boolean isTileAttacked(final Board board, final int positionX, final int positionY, final Alliance alliance) {
+		return scanAttackers(board, positionX, positionY, alliance, -1, -1, null);
+	}
+
+	/**
+	 * is tile [x, y] attacked while another tile is treated as empty, used for king
+	 * moves so the king does not hide from a slider behind itself
+	 * @param board current board
+	 * @param positionX x
+	 * @param positionY y
+	 * @param alliance alliance of attacking pieces
+	 * @param emptyX x of tile treated as empty
+	 * @param emptyY y of tile treated as empty
+	 * @return true if attacked
+	 */
+	public static boolean isTileAttacked(final Board board, final int positionX, final int positionY, final Alliance alliance, final int emptyX, final int emptyY) {
+		return scanAttackers(board, positionX, positionY, alliance, emptyX, emptyY, null);
+	}
+
+	/**
+	 * calculate all pieces of alliance attacking tile [x, y]
+	 * @param board current board
+	 * @param positionX x
+	 * @param positionY y
+	 * @param alliance alliance of attacking pieces
+	 * @return attacking pieces
+	 */
+	public static List<Piece> calculateAttackers(final Board board, final int positionX, final int positionY, final Alliance alliance) {
+		final List<Piece> attackers = new ArrayList<>();
+		scanAttackers(board, positionX, positionY, alliance, -1, -1, attackers);
+		return ImmutableList.copyOf(attackers);
+	}
+
+	/**
+	 * look for attackers outward from a tile
+	 * @param attackers collects every attacker, null to stop at the first one
+	 * @return true if an attacker was found
+	 */
+	private static boolean scanAttackers(final Board board, final int positionX, final int positionY, final Alliance alliance, final int emptyX, final int emptyY, final List<Piece> attackers) {
+		boolean found = false;
+		final int pawnY = positionY - alliance.getDirection();
+		for (int dx = -1; dx <= 1; dx += 2) {
+			final Piece pawn = pieceAt(board, positionX + dx, pawnY, alliance, PieceType.PAWN);
+			if (pawn != null) {
+				if (attackers == null) {
+					return true;
+				}
+				attackers.add(pawn);
+				found = true;
+			}
+		}
+		for (final int[] offset : KNIGHT_OFFSETS) {
+			final Piece knight = pieceAt(board, positionX + offset[0], positionY + offset[1], alliance, PieceType.KNIGHT);
+			if (knight != null) {
+				if (attackers == null) {
+					return true;
+				}
+				attackers.add(knight);
+				found = true;
+			}
+		}
+		for (int i = 0; i < KING_OFFSETS.length; i++) {
+			final int[] offset = KING_OFFSETS[i];
+			final Piece king = pieceAt(board, positionX + offset[0], positionY + offset[1], alliance, PieceType.KING);
+			if (king != null) {
+				if (attackers == null) {
+					return true;
+				}
+				attackers.add(king);
+				found = true;
+			}
+			final PieceType sliderType = i < 4 ? PieceType.ROOK : PieceType.BISHOP;
+			int x = positionX + offset[0], y = positionY + offset[1];
+			while (isValidTileCoordinate(x, y)) {
+				final Piece piece = x == emptyX && y == emptyY ? null : board.getTile(x, y).getPiece();
+				if (piece != null) {
+					if (piece.getPieceAlliance() == alliance && (piece.getPieceType() == sliderType || piece.getPieceType() == PieceType.QUEEN)) {
+						if (attackers == null) {
+							return true;
+						}
+						attackers.add(piece);
+						found = true;
+					}
+					break;
+				}
+				x += offset[0];
+				y += offset[1];
+			}
+		}
+		return found;
+	}
+
+	private static Piece pieceAt(final Board board, final int positionX, final int positionY, final Alliance alliance, final PieceType pieceType) {
+		if (!isValidTileCoordinate(positionX, positionY)) {
+			return null;
+		}
+		final Piece piece = board.getTile(positionX, positionY).getPiece();
+		return piece != null && piece.getPieceAlliance() == alliance && piece.getPieceType() == pieceType ? piece : null;
+	}
 }
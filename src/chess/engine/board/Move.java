@@ -31,7 +31,7 @@ public abstract class Move {
 	 * get current position of piece
 	 * @return x
 	 */
-	private int getCurrentPositionX() {
+	public int getCurrentPositionX() {
 		return movedPiece.getPiecePositionX();
 	}
 
@@ -39,7 +39,7 @@ public abstract class Move {
 	 * get current position of piece
 	 * @return y
 	 */
-	private int getCurrentPositionY() {
+	public int getCurrentPositionY() {
 		return movedPiece.getPiecePositionY();
 	}
 
@@ -88,9 +88,19 @@ public abstract class Move {
 		//move the moved piece
 		builder.setPiece(movedPiece.movePiece(this));
 		builder.setNextMoveMaker(board.getCurrentPlayer().getOpponent().getAlliance());
+		builder.setMoveTransition(this);
+		builder.setHalfMoveClock(nextHalfMoveClock());
 		return builder.build();
 	}
 
+	/**
+	 * get half move clock after this move, reset by captures and pawn moves
+	 * @return half move clock of next board
+	 */
+	protected int nextHalfMoveClock() {
+		return isAttack() || movedPiece.getPieceType() == Piece.PieceType.PAWN ? 0 : board.getHalfMoveClock() + 1;
+	}
+
 	@Override
 	public boolean equals(Object object) {
 		if (this == object) return true;
@@ -125,16 +135,12 @@ public abstract class Move {
 	}
 
 	/**
-	 * handle undo move
+	 * handle undo move, boards are immutable so the board the move was made on is the
+	 * previous board, with its half move clock, en passant pawn and game history
 	 * @return previous board
 	 */
 	public Board undo() {
-		final Builder builder = new Builder();
-		for(Piece piece : board.getAllPieces()) {
-			builder.setPiece(piece);
-		}
-		builder.setNextMoveMaker(this.board.getCurrentPlayer().getAlliance());
-		return builder.build();
+		return board;
 	}
 
 	public static final class MajorMove extends Move {
@@ -229,6 +235,8 @@ public abstract class Move {
 			}
 			builder.setPiece(promotedPawn.getPromotionPiece().movePiece(this));
 			builder.setNextMoveMaker(pawnMovedBoard.getCurrentPlayer().getAlliance());
+			builder.setMoveTransition(this);
+			builder.setHalfMoveClock(0);
 			return builder.build();
 		}
 
@@ -263,6 +271,8 @@ public abstract class Move {
 			builder.setPiece(movedPawn);
 			builder.setEnPassantPawn(movedPawn);
 			builder.setNextMoveMaker(board.getCurrentPlayer().getOpponent().getAlliance());
+			builder.setMoveTransition(this);
+			builder.setHalfMoveClock(0);
 			return builder.build();
 		}
 
@@ -318,6 +328,8 @@ public abstract class Move {
 			}
 			builder.setPiece(movedPiece.movePiece(this));
 			builder.setNextMoveMaker(board.getCurrentPlayer().getOpponent().getAlliance());
+			builder.setMoveTransition(this);
+			builder.setHalfMoveClock(0);
 			return builder.build();
 		}
 	}
@@ -354,6 +366,8 @@ public abstract class Move {
 			builder.setPiece(movedPiece.movePiece(this));
 			builder.setPiece(new Rook(castleRookPositionX, castleRookPositionY, castleRook.getPieceAlliance(), false));
 			builder.setNextMoveMaker(board.getCurrentPlayer().getOpponent().getAlliance());
+			builder.setMoveTransition(this);
+			builder.setHalfMoveClock(board.getHalfMoveClock() + 1);
 			return builder.build();
 		}
 
@@ -372,6 +386,14 @@ public abstract class Move {
 		public Rook getCastleRook() {
 			return castleRook;
 		}
+
+		public int getCastleRookPositionX() {
+			return castleRookPositionX;
+		}
+
+		public int getCastleRookPositionY() {
+			return castleRookPositionY;
+		}
 	}
 
 	public static class KingSideCastleMove extends CastleMove {
@@ -420,6 +442,44 @@ public abstract class Move {
 		}
 	}
 
+	public static final class NullMove extends Move {
+		public NullMove(Board board) {
+			super(board, -1, -1);
+		}
+
+		/**
+		 * pass the turn to the opponent without moving any piece, the half move clock
+		 * restarts so no repetition is ever found across a null move
+		 * @return next board
+		 */
+		@Override
+		public Board execute() {
+			final Builder builder = new Builder();
+			for (final Piece piece : board.getAllPieces()) {
+				builder.setPiece(piece);
+			}
+			builder.setNextMoveMaker(board.getCurrentPlayer().getOpponent().getAlliance());
+			builder.setMoveTransition(this);
+			builder.setHalfMoveClock(0);
+			return builder.build();
+		}
+
+		@Override
+		public boolean equals(final Object object) {
+			return this == object || object instanceof NullMove;
+		}
+
+		@Override
+		public int hashCode() {
+			return NullMove.class.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return "Null Move";
+		}
+	}
+
 	public static class MoveFactory {
 		public MoveFactory() {
 			throw new RuntimeException("Not instantiable");
@@ -0,0 +1,82 @@
+package chess.engine.board;
+
+import java.util.Arrays;
+
+public class PositionHistory {
+	private long[] hashes;
+	private int size;
+
+	public PositionHistory() {
+		this.hashes = new long[256];
+	}
+
+	/**
+	 * rebuild the history that matters for repetition of a board: the board itself
+	 * and its ancestors back to the last capture or pawn move
+	 * @param board current board
+	 * @return history with board on top
+	 */
+	public static PositionHistory of(final Board board) {
+		final long[] reversed = new long[board.getHalfMoveClock() + 1];
+		int count = 0;
+		for (Board currentBoard = board; currentBoard != null && count < reversed.length; ) {
+			reversed[count++] = currentBoard.getZobristHash();
+			final Move transitionMove = currentBoard.getTransitionMove();
+			currentBoard = transitionMove != null ? transitionMove.getBoard() : null;
+		}
+		final PositionHistory history = new PositionHistory();
+		for (int i = count - 1; i >= 0; i--) {
+			history.push(reversed[i]);
+		}
+		return history;
+	}
+
+	public void push(final long hash) {
+		if (size == hashes.length) {
+			hashes = Arrays.copyOf(hashes, size * 2);
+		}
+		hashes[size++] = hash;
+	}
+
+	public void pop() {
+		size--;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * count how often the position on top has occurred, itself included; only
+	 * reversible plies are scanned, and only positions with the same player to move
+	 * @param halfMoveClock half move clock of the position on top
+	 * @return number of occurrences
+	 */
+	public int repetitionCount(final int halfMoveClock) {
+		final long hash = hashes[size - 1];
+		final int oldest = Math.max(0, size - 1 - halfMoveClock);
+		int count = 1;
+		for (int i = size - 3; i >= oldest; i -= 2) {
+			if (hashes[i] == hash) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * has the position on top occurred before, enough for search to score it as a draw
+	 * @param halfMoveClock half move clock of the position on top
+	 * @return true if repeated
+	 */
+	public boolean isRepetition(final int halfMoveClock) {
+		final long hash = hashes[size - 1];
+		final int oldest = Math.max(0, size - 1 - halfMoveClock);
+		for (int i = size - 3; i >= oldest; i -= 2) {
+			if (hashes[i] == hash) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,332 @@
+package chess.engine.board;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * file of precomputed tables, memory mapped on first use so startup does not grow
+ * with the generators; a table missing from the file, of another version or length,
+ * or whose data does not match its crc is computed instead, so a stale, corrupt or
+ * absent file only costs time
+ *
+ * the crcs are checked once per file: write and the first load that finds every table
+ * intact record size and modification time of the file in a sidecar file, and a later
+ * load of the same file skips the check; any other file is checked table by table
+ *
+ * layout, big endian: magic, format version, table count, then per table the name
+ * length and ascii name, version, length in longs, crc32 of its data and byte offset
+ * of its data
+ */
+public final class PrecomputedTables {
+	/**
+	 * system property holding the table file, tables.bin next to the jar or class
+	 * directory of the engine by default
+	 */
+	public static final String FILE_PROPERTY = "chess.tables";
+	public static final String DEFAULT_FILE_NAME = "tables.bin";
+	static final int MAGIC = 0x434A5442;
+	static final int FORMAT_VERSION = 2;
+	private static final String VERIFIED_SUFFIX = ".verified";
+
+	private static ByteBuffer mapped;
+	private static boolean mappingTried, mappedVerified;
+
+	private PrecomputedTables() {
+		throw new RuntimeException("You cannot instantiate me");
+	}
+
+	/**
+	 * every table stored in the file, generated by main
+	 */
+	static List<Table> tables() {
+		return ImmutableList.of(Zobrist.KEYS);
+	}
+
+	/**
+	 * get the table file, never looked up in the working directory
+	 * @return file of the file property, else tables.bin next to the engine code, null if that location is unknown
+	 */
+	public static Path defaultFile() {
+		final String property = System.getProperty(FILE_PROPERTY);
+		if (property != null) {
+			return Paths.get(property);
+		}
+		try {
+			final CodeSource codeSource = PrecomputedTables.class.getProtectionDomain().getCodeSource();
+			if (codeSource == null || codeSource.getLocation() == null) {
+				return null;
+			}
+			final Path location = Paths.get(codeSource.getLocation().toURI());
+			return Files.isDirectory(location) ? location.resolve(DEFAULT_FILE_NAME) : location.resolveSibling(DEFAULT_FILE_NAME);
+		} catch (final URISyntaxException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	public static final class Table {
+		private final String name;
+		private final int version, length;
+		private final Supplier<long[]> generator;
+
+		/**
+		 * @param name name in the file
+		 * @param version bump whenever the generator changes, older files are then ignored
+		 * @param length number of longs
+		 * @param generator computes the table when the file cannot be used
+		 */
+		public Table(final String name, final int version, final int length, final Supplier<long[]> generator) {
+			this.name = name;
+			this.version = version;
+			this.length = length;
+			this.generator = generator;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getVersion() {
+			return version;
+		}
+
+		public int getLength() {
+			return length;
+		}
+
+		/**
+		 * get the table from the mapped file, or compute it if the file has no matching
+		 * entry or the entry fails its crc check
+		 * @return read only view of the table
+		 */
+		public LongBuffer load() {
+			final LongBuffer stored = find(this);
+			return stored != null ? stored : generate();
+		}
+
+		public LongBuffer generate() {
+			final long[] table = generator.get();
+			if (table.length != length) {
+				throw new IllegalStateException("Table " + name + " has " + table.length + " entries instead of " + length);
+			}
+			return LongBuffer.wrap(table).asReadOnlyBuffer();
+		}
+	}
+
+	/**
+	 * look up a table in the mapped file
+	 * @return view of its data, null if the file is missing, broken or has no matching entry with a valid crc
+	 */
+	private static LongBuffer find(final Table table) {
+		final ByteBuffer file = mappedFile();
+		if (file == null) {
+			return null;
+		}
+		try {
+			final ByteBuffer header = file.duplicate();
+			final int tableCount = header.getInt(8);
+			header.position(12);
+			for (int i = 0; i < tableCount; i++) {
+				final byte[] name = new byte[header.getShort()];
+				header.get(name);
+				final int version = header.getInt(), length = header.getInt(), crc = header.getInt();
+				final long offset = header.getLong();
+				if (table.name.equals(new String(name, StandardCharsets.US_ASCII)) && version == table.version && length == table.length) {
+					final ByteBuffer tableData = tableData(file, header.position(), offset, length);
+					return tableData != null && (isVerified() || crc(tableData.duplicate()) == crc) ? tableData.asLongBuffer() : null;
+				}
+			}
+		} catch (final RuntimeException e) {
+			return null;
+		}
+		return null;
+	}
+
+	/**
+	 * @return data of an entry, null if it lies outside the file
+	 */
+	private static ByteBuffer tableData(final ByteBuffer file, final int headerEnd, final long offset, final int length) {
+		if (offset < headerEnd || offset + 8L * length > file.capacity()) {
+			return null;
+		}
+		final ByteBuffer data = file.duplicate();
+		data.position((int) offset);
+		data.limit((int) offset + 8 * length);
+		return data.slice();
+	}
+
+	/**
+	 * check the data of every entry against its crc
+	 * @return true if all entries are intact
+	 */
+	private static boolean verifyAll(final ByteBuffer file) {
+		try {
+			final ByteBuffer header = file.duplicate();
+			final int tableCount = header.getInt(8);
+			header.position(12);
+			for (int i = 0; i < tableCount; i++) {
+				header.position(header.position() + 2 + header.getShort());
+				header.getInt();
+				final int length = header.getInt(), crc = header.getInt();
+				final long offset = header.getLong();
+				final ByteBuffer tableData = tableData(file, header.position(), offset, length);
+				if (tableData == null || crc(tableData) != crc) {
+					return false;
+				}
+			}
+			return true;
+		} catch (final RuntimeException e) {
+			return false;
+		}
+	}
+
+	private static synchronized boolean isVerified() {
+		return mappedVerified;
+	}
+
+	private static Path verifiedFile(final Path file) {
+		return file.resolveSibling(file.getFileName() + VERIFIED_SUFFIX);
+	}
+
+	/**
+	 * @return size and modification time of a file, the content of its sidecar file once verified
+	 */
+	private static byte[] fileStamp(final Path file) throws IOException {
+		final ByteBuffer stamp = ByteBuffer.allocate(20);
+		stamp.putInt(MAGIC);
+		stamp.putLong(Files.size(file));
+		stamp.putLong(Files.getLastModifiedTime(file).toMillis());
+		return stamp.array();
+	}
+
+	/**
+	 * @return true if the sidecar file records this version of the file as verified
+	 */
+	private static boolean isRecordedVerified(final Path file) {
+		try {
+			final Path verified = verifiedFile(file);
+			return Files.isRegularFile(verified) && Arrays.equals(Files.readAllBytes(verified), fileStamp(file));
+		} catch (final IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * record a file as verified; a directory that cannot be written only means the
+	 * next load checks the crcs again
+	 */
+	private static void recordVerified(final Path file) {
+		try {
+			Files.write(verifiedFile(file), fileStamp(file));
+		} catch (final IOException e) {
+			return;
+		}
+	}
+
+	private static int crc(final ByteBuffer data) {
+		final CRC32 crc = new CRC32();
+		crc.update(data);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * map the table file once, the mapping stays valid after the channel is closed;
+	 * a file not recorded as verified has all its crcs checked here, once
+	 */
+	private static synchronized ByteBuffer mappedFile() {
+		if (!mappingTried) {
+			mappingTried = true;
+			final Path file = defaultFile();
+			if (file != null && Files.isRegularFile(file)) {
+				try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+					final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+					if (buffer.capacity() >= 12 && buffer.getInt(0) == MAGIC && buffer.getInt(4) == FORMAT_VERSION) {
+						mapped = buffer.asReadOnlyBuffer();
+						mappedVerified = isRecordedVerified(file);
+						if (!mappedVerified && verifyAll(mapped)) {
+							mappedVerified = true;
+							recordVerified(file);
+						}
+					}
+				} catch (final IOException e) {
+					mapped = null;
+				}
+			}
+		}
+		return mapped;
+	}
+
+	/**
+	 * generate tables and write them to a file, through a temporary file so a mapped
+	 * old file stays intact
+	 * @param file table file
+	 * @param tables tables to store
+	 */
+	public static void write(final Path file, final List<Table> tables) throws IOException {
+		int headerSize = 12;
+		for (final Table table : tables) {
+			headerSize += 2 + table.name.length() + 20;
+		}
+		final List<ByteBuffer> data = new ArrayList<>();
+		for (final Table table : tables) {
+			final LongBuffer values = table.generate();
+			final ByteBuffer bytes = ByteBuffer.allocate(8 * values.remaining());
+			bytes.asLongBuffer().put(values);
+			data.add(bytes);
+		}
+		long offset = (headerSize + 7) & ~7;
+		final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(FORMAT_VERSION);
+			output.writeInt(tables.size());
+			for (int i = 0; i < tables.size(); i++) {
+				final Table table = tables.get(i);
+				final byte[] name = table.name.getBytes(StandardCharsets.US_ASCII);
+				output.writeShort(name.length);
+				output.write(name);
+				output.writeInt(table.version);
+				output.writeInt(table.length);
+				output.writeInt(crc(data.get(i).duplicate()));
+				output.writeLong(offset);
+				offset += 8L * table.length;
+			}
+			for (int i = headerSize; i % 8 != 0; i++) {
+				output.writeByte(0);
+			}
+			for (final ByteBuffer bytes : data) {
+				output.write(bytes.array());
+			}
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		recordVerified(file);
+	}
+
+	public static void main(final String[] args) throws IOException {
+		final Path file = args.length > 0 ? Paths.get(args[0]) : defaultFile();
+		if (file == null) {
+			throw new IOException("No table file given and the location of the engine is unknown");
+		}
+		write(file, tables());
+		System.out.println("Wrote " + tables().size() + " tables to " + file.toAbsolutePath());
+	}
+}
@@ -0,0 +1,74 @@
+package chess.engine.board;
+
+import chess.engine.Alliance;
+import chess.engine.piece.Pawn;
+import chess.engine.piece.Piece;
+
+import java.nio.LongBuffer;
+import java.util.Random;
+
+public class Zobrist {
+	public static final int WHITE_KING_SIDE = 1, WHITE_QUEEN_SIDE = 2, BLACK_KING_SIDE = 4, BLACK_QUEEN_SIDE = 8;
+
+	private static final long[][][] PIECE_KEYS = new long[2][6][64];
+	private static final long[] CASTLING_KEYS = new long[16];
+	private static final long[] EN_PASSANT_KEYS = new long[8];
+	private static final int KEY_COUNT = 2 * 6 * 64 + 16 + 8 + 1;
+	/**
+	 * all keys in the order they are drawn: pieces, castling, en passant, side to move
+	 */
+	static final PrecomputedTables.Table KEYS = new PrecomputedTables.Table("zobrist", 1, KEY_COUNT, Zobrist::generateKeys);
+	private static final long BLACK_TO_MOVE_KEY;
+
+	static {
+		final LongBuffer keys = KEYS.load();
+		for (final long[][] allianceKeys : PIECE_KEYS) {
+			for (final long[] pieceKeys : allianceKeys) {
+				keys.get(pieceKeys);
+			}
+		}
+		keys.get(CASTLING_KEYS);
+		keys.get(EN_PASSANT_KEYS);
+		BLACK_TO_MOVE_KEY = keys.get();
+	}
+
+	private Zobrist() {
+		throw new RuntimeException("You cannot instantiate me");
+	}
+
+	private static long[] generateKeys() {
+		final Random random = new Random(0x2F6C3B1D5A8E9407L);
+		final long[] keys = new long[KEY_COUNT];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = random.nextLong();
+		}
+		return keys;
+	}
+
+	/**
+	 * key of a piece standing on its square
+	 * @param piece piece on board
+	 * @return random key
+	 */
+	public static long pieceKey(final Piece piece) {
+		return PIECE_KEYS[piece.getPieceAlliance().ordinal()][piece.getPieceType().ordinal()][piece.getPiecePositionX() + 8 * piece.getPiecePositionY()];
+	}
+
+	/**
+	 * key of everything except piece placement
+	 * @param nextMoveMaker player to move
+	 * @param castlingRights castling bits, see WHITE_KING_SIDE ...
+	 * @param enPassantPawn pawn that just jumped, null if none
+	 * @return random key
+	 */
+	public static long stateKey(final Alliance nextMoveMaker, final int castlingRights, final Pawn enPassantPawn) {
+		long key = CASTLING_KEYS[castlingRights];
+		if (nextMoveMaker.isBlack()) {
+			key ^= BLACK_TO_MOVE_KEY;
+		}
+		if (enPassantPawn != null) {
+			key ^= EN_PASSANT_KEYS[enPassantPawn.getPiecePositionX()];
+		}
+		return key;
+	}
+}
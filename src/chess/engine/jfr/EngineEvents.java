@@ -0,0 +1,79 @@
+package chess.engine.jfr;
+
+import chess.engine.board.Move;
+import chess.engine.player.MoveStatus;
+
+/**
+ * hook for the profiling events of the engine; the default does nothing, so the
+ * engine itself does not depend on jdk.jfr, and the flight recorder implementation
+ * from the src-jfr source root is loaded by name when it and jdk.jfr are present;
+ * every begin method returns a token that is handed to the matching end method
+ */
+public class EngineEvents {
+	private static final String RECORDER_EVENTS = "chess.engine.jfr.RecorderEvents";
+	private static final EngineEvents INSTANCE = load();
+
+	protected EngineEvents() {
+	}
+
+	public static EngineEvents get() {
+		return INSTANCE;
+	}
+
+	private static EngineEvents load() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return (EngineEvents) Class.forName(RECORDER_EVENTS).getDeclaredConstructor().newInstance();
+		} catch (final ReflectiveOperationException | LinkageError | ClassCastException e) {
+			return new EngineEvents();
+		}
+	}
+
+	public Object beginBoardConstruction() {
+		return null;
+	}
+
+	/**
+	 * @param token result of beginBoardConstruction
+	 * @param pieceCount pieces on the new board
+	 * @param incremental true if scores and hashes were derived from the previous board
+	 */
+	public void endBoardConstruction(final Object token, final int pieceCount, final boolean incremental) {
+	}
+
+	public Object beginMoveExecute() {
+		return null;
+	}
+
+	public void endMoveExecute(final Object token, final Move move) {
+	}
+
+	public Object beginMakeMove() {
+		return null;
+	}
+
+	public void endMakeMove(final Object token, final Move move, final MoveStatus status) {
+	}
+
+	public Object beginCheckmate() {
+		return null;
+	}
+
+	public void endCheckmate(final Object token, final boolean inCheck, final boolean hasEscapeMove) {
+	}
+
+	public Object beginSearch() {
+		return null;
+	}
+
+	/**
+	 * @param token result of beginSearch
+	 * @param depth deepest completed iteration
+	 * @param nodes searched nodes
+	 * @param hitRate transposition table hit rate
+	 * @param score score of the best move
+	 * @param bestMove best move, null if there is none
+	 */
+	public void endSearch(final Object token, final int depth, final long nodes, final double hitRate, final int score, final Move bestMove) {
+	}
+}
@@ -21,13 +21,24 @@ public class Bishop extends Piece {
 
 	@Override
 	public List<Move> calculateLegalMoves(Board board) {
+		return calculateMoves(board, false);
+	}
+
+	@Override
+	public List<Move> calculateAttackMoves(Board board) {
+		return calculateMoves(board, true);
+	}
+
+	private List<Move> calculateMoves(final Board board, final boolean attacksOnly) {
 		final List<Move> legalMoves = new ArrayList<>();
 		for (final int[] currentCandidateOffset : CANDIDATE_MOVE_COORDINATES) {
 			int candidateDestinationPositionX = getPiecePositionX(), candidateDestinationPositionY = getPiecePositionY();
 			while (BoardUtils.isValidTileCoordinate(candidateDestinationPositionX += currentCandidateOffset[0], candidateDestinationPositionY += currentCandidateOffset[1])) {
 				final Tile candidateDestinationTile = board.getTile(candidateDestinationPositionX, candidateDestinationPositionY);
 				if (!candidateDestinationTile.isTileOccupied()) {
-					legalMoves.add(new MajorMove(board, this, candidateDestinationPositionX, candidateDestinationPositionY));
+					if (!attacksOnly) {
+						legalMoves.add(new MajorMove(board, this, candidateDestinationPositionX, candidateDestinationPositionY));
+					}
 				} else {
 					final Piece pieceAtDestination = candidateDestinationTile.getPiece();
 					final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
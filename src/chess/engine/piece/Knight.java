@@ -21,6 +21,15 @@ public class Knight extends Piece {
 
 	@Override
 	public List<Move> calculateLegalMoves(Board board) {
+		return calculateMoves(board, false);
+	}
+
+	@Override
+	public List<Move> calculateAttackMoves(Board board) {
+		return calculateMoves(board, true);
+	}
+
+	private List<Move> calculateMoves(final Board board, final boolean attacksOnly) {
 		final List<Move> legalMoves = new ArrayList<>();
 		for(final int[] currentCandidateOffset : CANDIDATE_MOVE_COORDINATES) {
 			int candidateDestinationPositionX, candidateDestinationPositionY;
@@ -29,7 +38,9 @@ public class Knight extends Piece {
 			if (BoardUtils.isValidTileCoordinate(candidateDestinationPositionX, candidateDestinationPositionY)) {
 				final Tile candidateDestinationTile = board.getTile(candidateDestinationPositionX, candidateDestinationPositionY);
 				if(!candidateDestinationTile.isTileOccupied()) {
-					legalMoves.add(new MajorMove(board, this, candidateDestinationPositionX, candidateDestinationPositionY));
+					if (!attacksOnly) {
+						legalMoves.add(new MajorMove(board, this, candidateDestinationPositionX, candidateDestinationPositionY));
+					}
 				} else {
 					final Piece pieceAtDestination = candidateDestinationTile.getPiece();
 					final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
@@ -20,6 +20,20 @@ public class Pawn extends Piece {
 
 	@Override
 	public List<Move> calculateLegalMoves(Board board) {
+		return calculateMoves(board, false);
+	}
+
+	/**
+	 * captures, en passant and promotions, pushes that do not promote are left out
+	 * @param board current board
+	 * @return attack moves
+	 */
+	@Override
+	public List<Move> calculateAttackMoves(Board board) {
+		return calculateMoves(board, true);
+	}
+
+	private List<Move> calculateMoves(final Board board, final boolean attacksOnly) {
 		final List<Move> legalMoves = new ArrayList<>();
 		for (final int[] currentCandidateOffset : CANDIDATE_MOVE_COORDINATES) {
 			int candidateDestinationPositionX = getPiecePositionX() + currentCandidateOffset[0], candidateDestinationPositionY = getPiecePositionY() + getPieceAlliance().getDirection() * currentCandidateOffset[1];
@@ -29,10 +43,10 @@ public class Pawn extends Piece {
 			if (currentCandidateOffset[0] == 0 && currentCandidateOffset[1] == 1 && !board.getTile(candidateDestinationPositionX, candidateDestinationPositionY).isTileOccupied()) {
 				if (getPieceAlliance().isPawnPromotionSquare(candidateDestinationPositionY)) {
 					legalMoves.add(new PawnPromotion(new PawnMove(board, this, candidateDestinationPositionX, candidateDestinationPositionY)));
-				} else {
+				} else if (!attacksOnly) {
 					legalMoves.add(new PawnMove(board, this, candidateDestinationPositionX, candidateDestinationPositionY));
 				}
-			} else if (currentCandidateOffset[0] == 0 && currentCandidateOffset[1] == 2 && isFirstMove() && ((getPieceAlliance().isBlack() && getPiecePositionY() == 1) || (getPieceAlliance().isWhite()) && getPiecePositionY() == 6)) {
+			} else if (!attacksOnly && currentCandidateOffset[0] == 0 && currentCandidateOffset[1] == 2 && isFirstMove() && ((getPieceAlliance().isBlack() && getPiecePositionY() == 1) || (getPieceAlliance().isWhite()) && getPiecePositionY() == 6)) {
 				final int behindCandidateDestinationPositionX = getPiecePositionX(), behindCandidateDestinationPositionY = getPiecePositionY() + getPieceAlliance().getDirection();
 				if (!board.getTile(behindCandidateDestinationPositionX, behindCandidateDestinationPositionY).isTileOccupied() && !board.getTile(candidateDestinationPositionX, candidateDestinationPositionY).isTileOccupied()) {
 					legalMoves.add(new PawnJump(board, this, candidateDestinationPositionX, candidateDestinationPositionY));
@@ -60,6 +60,13 @@ public abstract class Piece {
 
 	public abstract List<Move> calculateLegalMoves(final Board board);
 
+	/**
+	 * calculate captures and promotions only, used when quiet moves are not needed yet
+	 * @param board current board
+	 * @return attack moves
+	 */
+	public abstract List<Move> calculateAttackMoves(final Board board);
+
 	public abstract Piece movePiece(Move move);
 
 	public enum PieceType {
@@ -0,0 +1,190 @@
+package chess.engine.piece;
+
+import chess.engine.piece.Piece.PieceType;
+
+public class PieceSquareTable {
+	public static final int MAX_PHASE = 24;
+
+	private static final int[] MIDGAME_VALUE = {100, 320, 330, 500, 900, 0};
+	private static final int[] ENDGAME_VALUE = {120, 290, 320, 540, 950, 0};
+	private static final int[] PHASE_WEIGHT = {0, 1, 1, 2, 4, 0};
+
+	/**
+	 * tables are written from white point of view, first row is rank 8 (y = 0)
+	 */
+	private static final int[] PAWN_MIDGAME = {
+			0, 0, 0, 0, 0, 0, 0, 0,
+			50, 50, 50, 50, 50, 50, 50, 50,
+			10, 10, 20, 30, 30, 20, 10, 10,
+			5, 5, 10, 25, 25, 10, 5, 5,
+			0, 0, 0, 20, 20, 0, 0, 0,
+			5, -5, -10, 0, 0, -10, -5, 5,
+			5, 10, 10, -20, -20, 10, 10, 5,
+			0, 0, 0, 0, 0, 0, 0, 0
+	};
+	private static final int[] PAWN_ENDGAME = {
+			0, 0, 0, 0, 0, 0, 0, 0,
+			80, 80, 80, 80, 80, 80, 80, 80,
+			50, 50, 50, 50, 50, 50, 50, 50,
+			30, 30, 30, 30, 30, 30, 30, 30,
+			20, 20, 20, 20, 20, 20, 20, 20,
+			10, 10, 10, 10, 10, 10, 10, 10,
+			0, 0, 0, 0, 0, 0, 0, 0,
+			0, 0, 0, 0, 0, 0, 0, 0
+	};
+	private static final int[] KNIGHT = {
+			-50, -40, -30, -30, -30, -30, -40, -50,
+			-40, -20, 0, 0, 0, 0, -20, -40,
+			-30, 0, 10, 15, 15, 10, 0, -30,
+			-30, 5, 15, 20, 20, 15, 5, -30,
+			-30, 0, 15, 20, 20, 15, 0, -30,
+			-30, 5, 10, 15, 15, 10, 5, -30,
+			-40, -20, 0, 5, 5, 0, -20, -40,
+			-50, -40, -30, -30, -30, -30, -40, -50
+	};
+	private static final int[] BISHOP = {
+			-20, -10, -10, -10, -10, -10, -10, -20,
+			-10, 0, 0, 0, 0, 0, 0, -10,
+			-10, 0, 5, 10, 10, 5, 0, -10,
+			-10, 5, 5, 10, 10, 5, 5, -10,
+			-10, 0, 10, 10, 10, 10, 0, -10,
+			-10, 10, 10, 10, 10, 10, 10, -10,
+			-10, 5, 0, 0, 0, 0, 5, -10,
+			-20, -10, -10, -10, -10, -10, -10, -20
+	};
+	private static final int[] ROOK = {
+			0, 0, 0, 0, 0, 0, 0, 0,
+			5, 10, 10, 10, 10, 10, 10, 5,
+			-5, 0, 0, 0, 0, 0, 0, -5,
+			-5, 0, 0, 0, 0, 0, 0, -5,
+			-5, 0, 0, 0, 0, 0, 0, -5,
+			-5, 0, 0, 0, 0, 0, 0, -5,
+			-5, 0, 0, 0, 0, 0, 0, -5,
+			0, 0, 0, 5, 5, 0, 0, 0
+	};
+	private static final int[] QUEEN = {
+			-20, -10, -10, -5, -5, -10, -10, -20,
+			-10, 0, 0, 0, 0, 0, 0, -10,
+			-10, 0, 5, 5, 5, 5, 0, -10,
+			-5, 0, 5, 5, 5, 5, 0, -5,
+			0, 0, 5, 5, 5, 5, 0, -5,
+			-10, 5, 5, 5, 5, 5, 0, -10,
+			-10, 0, 5, 0, 0, 0, 0, -10,
+			-20, -10, -10, -5, -5, -10, -10, -20
+	};
+	private static final int[] KING_MIDGAME = {
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-30, -40, -40, -50, -50, -40, -40, -30,
+			-20, -30, -30, -40, -40, -30, -30, -20,
+			-10, -20, -20, -20, -20, -20, -20, -10,
+			20, 20, 0, 0, 0, 0, 20, 20,
+			20, 30, 10, 0, 0, 10, 30, 20
+	};
+	private static final int[] KING_ENDGAME = {
+			-50, -40, -30, -20, -20, -30, -40, -50,
+			-30, -20, -10, 0, 0, -10, -20, -30,
+			-30, -10, 20, 30, 30, 20, -10, -30,
+			-30, -10, 30, 40, 40, 30, -10, -30,
+			-30, -10, 30, 40, 40, 30, -10, -30,
+			-30, -10, 20, 30, 30, 20, -10, -30,
+			-30, -30, 0, 0, 0, 0, -30, -30,
+			-50, -30, -30, -30, -30, -30, -30, -50
+	};
+
+	private static final int[][] MIDGAME_TABLE = {PAWN_MIDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_MIDGAME};
+	private static final int[][] ENDGAME_TABLE = {PAWN_ENDGAME, KNIGHT, BISHOP, ROOK, QUEEN, KING_ENDGAME};
+
+	private PieceSquareTable() {
+		throw new RuntimeException("You cannot instantiate me");
+	}
+
+	/**
+	 * midgame material and square bonus of a piece
+	 * @param piece piece on board
+	 * @return positive for white piece, negative for black piece
+	 */
+	public static int midgame(final Piece piece) {
+		final int type = piece.getPieceType().ordinal();
+		final int score = MIDGAME_VALUE[type] + MIDGAME_TABLE[type][tableIndex(piece)];
+		return piece.getPieceAlliance().isWhite() ? score : -score;
+	}
+
+	/**
+	 * endgame material and square bonus of a piece
+	 * @param piece piece on board
+	 * @return positive for white piece, negative for black piece
+	 */
+	public static int endgame(final Piece piece) {
+		final int type = piece.getPieceType().ordinal();
+		final int score = ENDGAME_VALUE[type] + ENDGAME_TABLE[type][tableIndex(piece)];
+		return piece.getPieceAlliance().isWhite() ? score : -score;
+	}
+
+	/**
+	 * contribution of a piece to game phase, MAX_PHASE with all pieces on board
+	 * @param piece piece on board
+	 * @return phase weight
+	 */
+	public static int phase(final Piece piece) {
+		return PHASE_WEIGHT[piece.getPieceType().ordinal()];
+	}
+
+	/**
+	 * get midgame material value of a piece type
+	 * @param type piece type
+	 * @return value in centipawns
+	 */
+	public static int midgameValue(final PieceType type) {
+		return MIDGAME_VALUE[type.ordinal()];
+	}
+
+	public static int endgameValue(final PieceType type) {
+		return ENDGAME_VALUE[type.ordinal()];
+	}
+
+	/**
+	 * get midgame square bonus of a piece type
+	 * @param type piece type
+	 * @param tableIndex x + 8 * y from white point of view, y = 0 is rank 8
+	 * @return bonus in centipawns
+	 */
+	public static int midgameBonus(final PieceType type, final int tableIndex) {
+		return MIDGAME_TABLE[type.ordinal()][tableIndex];
+	}
+
+	public static int endgameBonus(final PieceType type, final int tableIndex) {
+		return ENDGAME_TABLE[type.ordinal()][tableIndex];
+	}
+
+	/**
+	 * knights, bishops, rooks and queens use one table in both phases
+	 * @param type piece type
+	 * @return true if the endgame bonus has a table of its own
+	 */
+	public static boolean hasEndgameTable(final PieceType type) {
+		return ENDGAME_TABLE[type.ordinal()] != MIDGAME_TABLE[type.ordinal()];
+	}
+
+	public static int phase(final PieceType type) {
+		return PHASE_WEIGHT[type.ordinal()];
+	}
+
+	/**
+	 * blend midgame and endgame score by game phase
+	 * @param midgame midgame score
+	 * @param endgame endgame score
+	 * @param phase game phase, MAX_PHASE is opening, 0 is bare endgame
+	 * @return tapered score
+	 */
+	public static int taper(final int midgame, final int endgame, final int phase) {
+		final int clampedPhase = Math.min(phase, MAX_PHASE);
+		return (midgame * clampedPhase + endgame * (MAX_PHASE - clampedPhase)) / MAX_PHASE;
+	}
+
+	private static int tableIndex(final Piece piece) {
+		final int positionY = piece.getPieceAlliance().isWhite() ? piece.getPiecePositionY() : 7 - piece.getPiecePositionY();
+		return piece.getPiecePositionX() + 8 * positionY;
+	}
+}
@@ -2,6 +2,7 @@ package chess.engine.player;
 
 import chess.engine.Alliance;
 import chess.engine.board.Board;
+import chess.engine.board.BoardUtils;
 import chess.engine.board.Move;
 import chess.engine.board.Move.KingSideCastleMove;
 import chess.engine.board.Move.QueenSideCastleMove;
@@ -15,9 +16,8 @@ import java.util.List;
 
 public class BlackPlayer extends Player {
 
-	public BlackPlayer(Board board, List<Move> whiteStandardLegalMoves, List<Move> blackStandardLegalMoves) {
-		super(board, blackStandardLegalMoves, whiteStandardLegalMoves);
-
+	public BlackPlayer(Board board) {
+		super(board);
 	}
 
 	@Override
@@ -36,13 +36,13 @@ public class BlackPlayer extends Player {
 	}
 
 	@Override
-	protected List<Move> calculateKingCastles(List<Move> playerLegals, List<Move> opponentLegals) {
+	protected List<Move> calculateKingCastles() {
 		final List<Move> kingCastles = new ArrayList<>();
 		if(playerKing.isFirstMove() && !isInCheck()) {
 			if(!board.getTile(5, 0).isTileOccupied() && !board.getTile(6, 0).isTileOccupied()) {
 				final Tile rookTile = board.getTile(7, 0);
 				if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() && rookTile.getPiece().getPieceType().isRook()) {
-					if(Player.calculateAttackOnTile(5, 0, opponentLegals).isEmpty() && Player.calculateAttackOnTile(6, 0, opponentLegals).isEmpty()) {
+					if(!BoardUtils.isTileAttacked(board, 5, 0, Alliance.WHITE) && !BoardUtils.isTileAttacked(board, 6, 0, Alliance.WHITE)) {
 						kingCastles.add(new KingSideCastleMove(board, playerKing, 6, 0, (Rook) rookTile.getPiece(), rookTile.getPositionX(), rookTile.getPositionY(), 5, 0));
 					}
 				}
@@ -50,7 +50,7 @@ public class BlackPlayer extends Player {
 			if(!board.getTile(1, 0).isTileOccupied() && !board.getTile(2, 0).isTileOccupied() && !board.getTile(3, 0).isTileOccupied()) {
 				final Tile rookTile = board.getTile(0, 0);
 				if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() && rookTile.getPiece().getPieceType().isRook()) {
-					if(Player.calculateAttackOnTile(2, 0, opponentLegals).isEmpty() && Player.calculateAttackOnTile(3, 0, opponentLegals).isEmpty()) {
+					if(!BoardUtils.isTileAttacked(board, 2, 0, Alliance.WHITE) && !BoardUtils.isTileAttacked(board, 3, 0, Alliance.WHITE)) {
 						kingCastles.add(new QueenSideCastleMove(board, playerKing, 2, 0, (Rook) rookTile.getPiece(), rookTile.getPositionX(), rookTile.getPositionY(), 3, 0));
 					}
 				}
@@ -0,0 +1,79 @@
+package chess.engine.player;
+
+import chess.engine.Alliance;
+import chess.engine.board.Board;
+import chess.engine.board.BoardUtils;
+import chess.engine.board.Move;
+import chess.engine.board.Move.PawnEnPassantAttackMove;
+import chess.engine.piece.King;
+import chess.engine.piece.Piece;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EvasionGenerator {
+	private EvasionGenerator() {
+		throw new RuntimeException("You cannot instantiate me");
+	}
+
+	/**
+	 * calculate the moves that can answer a check: king moves to tiles the opponent
+	 * does not attack, and against a single checker its capture or a block on the
+	 * tiles between checker and king; pinned pieces are still left to makeMove
+	 * @param player player in check
+	 * @param board current board
+	 * @return evasion moves
+	 */
+	public static List<Move> calculateEvasions(final Player player, final Board board) {
+		final King king = player.getPlayerKing();
+		final int kingX = king.getPiecePositionX(), kingY = king.getPiecePositionY();
+		final Alliance opponent = player.getAlliance().isWhite() ? Alliance.BLACK : Alliance.WHITE;
+		final List<Move> evasions = new ArrayList<>();
+		for (final Move move : king.calculateLegalMoves(board)) {
+			if (!BoardUtils.isTileAttacked(board, move.getDestinationPositionX(), move.getDestinationPositionY(), opponent, kingX, kingY)) {
+				evasions.add(move);
+			}
+		}
+		final List<Piece> checkers = BoardUtils.calculateAttackers(board, kingX, kingY, opponent);
+		if (checkers.size() != 1) {
+			return ImmutableList.copyOf(evasions);
+		}
+		final Piece checker = checkers.get(0);
+		final boolean[] targetTiles = calculateTargetTiles(checker, kingX, kingY);
+		for (final Piece piece : player.getActivePieces()) {
+			if (piece.getPieceType().isKing()) {
+				continue;
+			}
+			for (final Move move : piece.calculateLegalMoves(board)) {
+				if (targetTiles[move.getDestinationPositionX() + 8 * move.getDestinationPositionY()] || move instanceof PawnEnPassantAttackMove && move.getAttackedPiece().equals(checker)) {
+					evasions.add(move);
+				}
+			}
+		}
+		return ImmutableList.copyOf(evasions);
+	}
+
+	/**
+	 * tile of the checker, plus the tiles between a sliding checker and the king
+	 * @return tiles indexed by x + 8 * y
+	 */
+	private static boolean[] calculateTargetTiles(final Piece checker, final int kingX, final int kingY) {
+		final boolean[] targetTiles = new boolean[64];
+		final int checkerX = checker.getPiecePositionX(), checkerY = checker.getPiecePositionY();
+		targetTiles[checkerX + 8 * checkerY] = true;
+		switch (checker.getPieceType()) {
+			case BISHOP:
+			case ROOK:
+			case QUEEN:
+				final int stepX = Integer.signum(kingX - checkerX), stepY = Integer.signum(kingY - checkerY);
+				for (int x = checkerX + stepX, y = checkerY + stepY; x != kingX || y != kingY; x += stepX, y += stepY) {
+					targetTiles[x + 8 * y] = true;
+				}
+				break;
+			default:
+				break;
+		}
+		return targetTiles;
+	}
+}
@@ -2,7 +2,10 @@ package chess.engine.player;
 
 import chess.engine.Alliance;
 import chess.engine.board.Board;
+import chess.engine.board.BoardUtils;
 import chess.engine.board.Move;
+import chess.engine.board.Move.PawnPromotion;
+import chess.engine.jfr.EngineEvents;
 import chess.engine.piece.King;
 import chess.engine.piece.Piece;
 import com.google.common.collect.ImmutableList;
@@ -14,28 +17,60 @@ import java.util.List;
 public abstract class Player {
 	protected final Board board;
 	protected final King playerKing;
-	private final List<Move> legalMoves;
 	private final boolean isInCheck;
+	private volatile List<Move> legalMoves, attackMoves;
 
-	public Player(Board board, List<Move> playerLegalMove, List<Move> opponentLegalMove) {
+	public Player(Board board) {
 		this.board = board;
 		this.playerKing = establishKing();
-		this.isInCheck = !Player.calculateAttackOnTile(this.playerKing.getPiecePositionX(), this.playerKing.getPiecePositionY(), opponentLegalMove).isEmpty();
- 		this.legalMoves = ImmutableList.copyOf(Iterables.concat(playerLegalMove, calculateKingCastles(playerLegalMove, opponentLegalMove)));
+		this.isInCheck = BoardUtils.isTileAttacked(board, this.playerKing.getPiecePositionX(), this.playerKing.getPiecePositionY(), getAlliance().isWhite() ? Alliance.BLACK : Alliance.WHITE);
 	}
 
+	/**
+	 * get legal moves, generated on first use so boards that are only checked
+	 * or searched for captures never build them; in check only evasions are generated
+	 * @return legal moves including castles
+	 */
 	public List<Move> getLegalMoves() {
-		return legalMoves;
+		List<Move> moves = legalMoves;
+		if (moves == null && isInCheck) {
+			moves = EvasionGenerator.calculateEvasions(this, board);
+			legalMoves = moves;
+		} else if (moves == null) {
+			final List<Move> standardMoves = new ArrayList<>();
+			for (final Piece piece : getActivePieces()) {
+				standardMoves.addAll(piece.calculateLegalMoves(board));
+			}
+			moves = ImmutableList.copyOf(Iterables.concat(standardMoves, calculateKingCastles()));
+			legalMoves = moves;
+		}
+		return moves;
 	}
 
-	protected static List<Move> calculateAttackOnTile(int piecePositionX, int piecePositionY, List<Move> opponentLegalMove) {
-		final List<Move> attackMove = new ArrayList<>();
-		for(final Move move : opponentLegalMove) {
-			if(piecePositionX == move.getDestinationPositionX() && piecePositionY == move.getDestinationPositionY()) {
-				attackMove.add(move);
+	/**
+	 * get captures and promotions, generated on first use without the quiet moves;
+	 * in check only those among the evasions
+	 * @return attack moves
+	 */
+	public List<Move> getAttackMoves() {
+		List<Move> moves = attackMoves;
+		if (moves == null) {
+			final List<Move> noisyMoves = new ArrayList<>();
+			if (isInCheck) {
+				for (final Move move : getLegalMoves()) {
+					if (move.isAttack() || move instanceof PawnPromotion) {
+						noisyMoves.add(move);
+					}
+				}
+			} else {
+				for (final Piece piece : getActivePieces()) {
+					noisyMoves.addAll(piece.calculateAttackMoves(board));
+				}
 			}
+			moves = ImmutableList.copyOf(noisyMoves);
+			attackMoves = moves;
 		}
-		return ImmutableList.copyOf(attackMove);
+		return moves;
 	}
 
 	private King establishKing() {
@@ -48,7 +83,31 @@ public abstract class Player {
 	}
 
 	public boolean isMoveLegal(final Move move) {
-		return legalMoves.contains(move);
+		return getLegalMoves().contains(move);
+	}
+
+	/**
+	 * find the legal move of this player that makeMove plays, matched by identity
+	 * before equality so moves out of getLegalMoves are found without calling equals
+	 * @param move move to play, possibly made for another board object
+	 * @return the matching legal move of this board, null if the move is not legal
+	 */
+	private Move findLegalMove(final Move move) {
+		if (move == null) {
+			return null;
+		}
+		final List<Move> moves = getLegalMoves();
+		for (int i = 0; i < moves.size(); i++) {
+			if (moves.get(i) == move) {
+				return move;
+			}
+		}
+		for (int i = 0; i < moves.size(); i++) {
+			if (moves.get(i).equals(move)) {
+				return moves.get(i);
+			}
+		}
+		return null;
 	}
 
 	public boolean isInCheck() {
@@ -64,23 +123,55 @@ public abstract class Player {
 	}
 
 	protected boolean doesNotHaveEscapeMoves() {
-		for (Move move : legalMoves) {
+		final Object event = EngineEvents.get().beginCheckmate();
+		boolean hasEscapeMove = false;
+		for (Move move : getLegalMoves()) {
 			if (makeMove(move).getMoveStatus().isDone()) {
-				return false;
+				hasEscapeMove = true;
+				break;
 			}
 		}
-		return true;
+		EngineEvents.get().endCheckmate(event, isInCheck, hasEscapeMove);
+		return !hasEscapeMove;
 	}
 
 	public boolean isCastled() {
 		return false;
 	}
 
+	/**
+	 * play a move if it is one of the legal moves of this player; an equal move of
+	 * another board object plays the matching move of this board
+	 * @param move move to play
+	 * @return transition, ILLEGAL_MOVE if the move is not legal here
+	 */
 	public MoveTransition makeMove(final Move move) {
-		if(!isMoveLegal(move)) {
-			return new MoveTransition(board, MoveStatus.ILLEGAL_MOVE);
-		}
+		final Object event = EngineEvents.get().beginMakeMove();
+		final Move legalMove = findLegalMove(move);
+		final MoveTransition transition = legalMove != null ? transition(legalMove) : new MoveTransition(board, MoveStatus.ILLEGAL_MOVE);
+		EngineEvents.get().endMakeMove(event, move, transition.getMoveStatus());
+		return transition;
+	}
+
+	/**
+	 * play a move the pieces of this board generated for it, without looking it up
+	 * in the legal moves; for the search, whose staged move picker hands out hash
+	 * and killer moves before the legal moves are ever generated; any other move
+	 * goes through makeMove
+	 * @param move move generated on this board for this player
+	 * @return transition, LEAVES_PLAYER_IN_CHECK for a pseudo legal move that does
+	 */
+	public MoveTransition makeGeneratedMove(final Move move) {
+		final Object event = EngineEvents.get().beginMakeMove();
+		final MoveTransition transition = transition(move);
+		EngineEvents.get().endMakeMove(event, move, transition.getMoveStatus());
+		return transition;
+	}
+
+	private MoveTransition transition(final Move move) {
+		final Object executeEvent = EngineEvents.get().beginMoveExecute();
 		final Board transitionBoard = move.execute();
+		EngineEvents.get().endMoveExecute(executeEvent, move);
 		if(transitionBoard == null || transitionBoard.getCurrentPlayer().getOpponent().isInCheck()) {
 			return new MoveTransition(board, MoveStatus.LEAVES_PLAYER_IN_CHECK);
 		}
@@ -98,5 +189,5 @@ public abstract class Player {
 	public abstract List<Piece> getActivePieces();
 	public abstract Alliance getAlliance();
 	public abstract Player getOpponent();
-	protected abstract List<Move> calculateKingCastles(List<Move> playerLegals, List<Move> opponentLegals);
+	protected abstract List<Move> calculateKingCastles();
 }
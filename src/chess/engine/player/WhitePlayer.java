@@ -2,6 +2,7 @@ package chess.engine.player;
 
 import chess.engine.Alliance;
 import chess.engine.board.Board;
+import chess.engine.board.BoardUtils;
 import chess.engine.board.Move;
 import chess.engine.board.Move.KingSideCastleMove;
 import chess.engine.board.Move.QueenSideCastleMove;
@@ -15,8 +16,8 @@ import java.util.List;
 
 public class WhitePlayer extends Player {
 
-	public WhitePlayer(Board board, List<Move> whiteStandardLegalMoves, List<Move> blackStandardLegalMoves) {
-		super(board, whiteStandardLegalMoves, blackStandardLegalMoves);
+	public WhitePlayer(Board board) {
+		super(board);
 	}
 
 	@Override
@@ -35,13 +36,13 @@ public class WhitePlayer extends Player {
 	}
 
 	@Override
-	protected List<Move> calculateKingCastles(List<Move> playerLegals, List<Move> opponentLegals) {
+	protected List<Move> calculateKingCastles() {
 		final List<Move> kingCastles = new ArrayList<>();
 		if(playerKing.isFirstMove() && !isInCheck()) {
 			if(!board.getTile(5, 7).isTileOccupied() && !board.getTile(6, 7).isTileOccupied()) {
 				final Tile rookTile = board.getTile(7, 7);
 				if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() && rookTile.getPiece().getPieceType().isRook()) {
-					if(Player.calculateAttackOnTile(5, 7, opponentLegals).isEmpty() && Player.calculateAttackOnTile(6, 7, opponentLegals).isEmpty()) {
+					if(!BoardUtils.isTileAttacked(board, 5, 7, Alliance.BLACK) && !BoardUtils.isTileAttacked(board, 6, 7, Alliance.BLACK)) {
 						kingCastles.add(new KingSideCastleMove(board, playerKing, 6, 7, (Rook) rookTile.getPiece(), rookTile.getPositionX(), rookTile.getPositionY(), 5, 7));
 					}
 				}
@@ -49,7 +50,7 @@ public class WhitePlayer extends Player {
 			if(!board.getTile(1, 7).isTileOccupied() && !board.getTile(2, 7).isTileOccupied() && !board.getTile(3, 7).isTileOccupied()) {
 				final Tile rookTile = board.getTile(0, 7);
 				if(rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() && rookTile.getPiece().getPieceType().isRook()) {
-					if(Player.calculateAttackOnTile(2, 7, opponentLegals).isEmpty() && Player.calculateAttackOnTile(3, 7, opponentLegals).isEmpty()) {
+					if(!BoardUtils.isTileAttacked(board, 2, 7, Alliance.BLACK) && !BoardUtils.isTileAttacked(board, 3, 7, Alliance.BLACK)) {
 						kingCastles.add(new QueenSideCastleMove(board, playerKing, 2, 7, (Rook) rookTile.getPiece(), rookTile.getPositionX(), rookTile.getPositionY(), 3, 7));
 					}
 				}
@@ -0,0 +1,688 @@
+package chess.engine.player.ai;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.board.Move.NullMove;
+import chess.engine.board.Move.PawnPromotion;
+import chess.engine.board.PositionHistory;
+import chess.engine.jfr.EngineEvents;
+import chess.engine.piece.Piece;
+import chess.engine.player.MoveTransition;
+import chess.engine.player.Player;
+import chess.engine.tablebase.Tablebase;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class AlphaBeta implements MoveStrategy {
+	static final int MATE_SCORE = 100000;
+	static final int MATE_BOUND = MATE_SCORE - 1000;
+	static final int INFINITE_SCORE = 1000000;
+	static final int MAX_PLY = 64;
+
+	private static final int[] FUTILITY_MARGIN = {0, 200, 300, 500};
+	private static final int[] RAZOR_MARGIN = {0, 300, 400, 600};
+	private static final int REVERSE_FUTILITY_MARGIN = 120;
+	private static final int LATE_MOVE_THRESHOLD = 3;
+
+	private final BoardEvaluator evaluator;
+	private final int searchDepth;
+	private final Move[][] killerMoves;
+	private final MovePicker[] movePickers;
+	private final Move[][] principalVariations;
+	private final int[] principalVariationLengths;
+	private final int[][] historyScores;
+	private boolean nullMovePruning, lateMoveReductions, futilityPruning, reverseFutilityPruning, razoring;
+	private SearchStatistics statistics;
+	private long[] counters, searchStartCounters;
+	private final List<SearchStatistics.Iteration> iterations;
+	private int bestScore, rootScore;
+	private final TranspositionTable transpositionTable;
+	private TimeManager timeManager;
+	private boolean stopped;
+	private PositionHistory positionHistory;
+	private Tablebase tablebase;
+
+	public AlphaBeta(final BoardEvaluator evaluator, final int searchDepth) {
+		this.evaluator = evaluator;
+		this.searchDepth = searchDepth;
+		this.killerMoves = new Move[MAX_PLY][2];
+		this.historyScores = new int[64][64];
+		this.movePickers = new MovePicker[MAX_PLY];
+		for (int ply = 0; ply < MAX_PLY; ply++) {
+			this.movePickers[ply] = new MovePicker(historyScores, 2);
+		}
+		this.principalVariations = new Move[MAX_PLY + 1][MAX_PLY + 1];
+		this.principalVariationLengths = new int[MAX_PLY + 1];
+		this.transpositionTable = new TranspositionTable();
+		this.statistics = new SearchStatistics();
+		this.counters = statistics.stripe();
+		this.searchStartCounters = new long[SearchStatistics.COUNTER_COUNT];
+		this.iterations = new ArrayList<>();
+		this.nullMovePruning = true;
+		this.lateMoveReductions = true;
+		this.futilityPruning = true;
+		this.reverseFutilityPruning = true;
+		this.razoring = true;
+	}
+
+	public AlphaBeta(final int searchDepth) {
+		this(new StandardBoardEvaluator(), searchDepth);
+	}
+
+	public void setNullMovePruning(final boolean nullMovePruning) {
+		this.nullMovePruning = nullMovePruning;
+	}
+
+	public void setLateMoveReductions(final boolean lateMoveReductions) {
+		this.lateMoveReductions = lateMoveReductions;
+	}
+
+	public void setFutilityPruning(final boolean futilityPruning) {
+		this.futilityPruning = futilityPruning;
+	}
+
+	public void setReverseFutilityPruning(final boolean reverseFutilityPruning) {
+		this.reverseFutilityPruning = reverseFutilityPruning;
+	}
+
+	public void setRazoring(final boolean razoring) {
+		this.razoring = razoring;
+	}
+
+	/**
+	 * play under a clock, search depth becomes the maximum depth
+	 * @param timeManager time manager of the next search, null for fixed depth
+	 */
+	public void setTimeManager(final TimeManager timeManager) {
+		this.timeManager = timeManager;
+	}
+
+	/**
+	 * score positions covered by endgame tables without searching them
+	 * @param tablebase tables to probe below the root, null to disable
+	 */
+	public void setTablebase(final Tablebase tablebase) {
+		this.tablebase = tablebase;
+	}
+
+	/**
+	 * turn every selective pruning technique on or off, plain alpha-beta when off
+	 * @param enabled true to enable all
+	 */
+	public void setAllPruning(final boolean enabled) {
+		this.nullMovePruning = enabled;
+		this.lateMoveReductions = enabled;
+		this.futilityPruning = enabled;
+		this.reverseFutilityPruning = enabled;
+		this.razoring = enabled;
+	}
+
+	/**
+	 * count into shared statistics, for example of several searches running on
+	 * different threads; counters are never reset by the search
+	 * @param statistics statistics to count into
+	 */
+	public void setStatistics(final SearchStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	public SearchStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * get per iteration counters of the last search
+	 * @return completed iterations, shallowest first
+	 */
+	public List<SearchStatistics.Iteration> getIterations() {
+		return iterations;
+	}
+
+	public long getNodes() {
+		return getSearchCount(SearchStatistics.NODES);
+	}
+
+	public long getNullMoveCutoffs() {
+		return getSearchCount(SearchStatistics.NULL_MOVE_CUTOFFS);
+	}
+
+	public long getLateMoveReductionCount() {
+		return getSearchCount(SearchStatistics.LATE_MOVE_REDUCTIONS);
+	}
+
+	public long getFutilityPrunes() {
+		return getSearchCount(SearchStatistics.FUTILITY_PRUNES);
+	}
+
+	public long getReverseFutilityPrunes() {
+		return getSearchCount(SearchStatistics.REVERSE_FUTILITY_PRUNES);
+	}
+
+	public long getRazorPrunes() {
+		return getSearchCount(SearchStatistics.RAZOR_PRUNES);
+	}
+
+	public long getTablebaseHits() {
+		return getSearchCount(SearchStatistics.TABLEBASE_HITS);
+	}
+
+	/**
+	 * get counter of the last search
+	 * @param counter SearchStatistics.NODES ...
+	 * @return count since the search started
+	 */
+	public long getSearchCount(final int counter) {
+		return counters[counter] - searchStartCounters[counter];
+	}
+
+	/**
+	 * get score of the last search
+	 * @return score from the point of view of the player to move
+	 */
+	public int getBestScore() {
+		return bestScore;
+	}
+
+	/**
+	 * iterative deepening search from depth 1 to search depth,
+	 * stopped early by the time manager if there is one
+	 * @param board current board
+	 * @return best move, null if there is no legal move
+	 */
+	@Override
+	public Move execute(final Board board) {
+		final List<PrincipalVariation> lines = iterativeDeepening(board, 1, null);
+		return lines.isEmpty() ? null : lines.get(0).getMove();
+	}
+
+	/**
+	 * multi-pv analysis: at every depth the best line is searched first, then the
+	 * best line among the remaining root moves, and so on; all lines share the
+	 * transposition table so later lines reuse the work of earlier ones
+	 * @param board current board
+	 * @param multiPv number of lines wanted
+	 * @param listener receives every line as soon as it is found at a new depth, may be null
+	 * @return best lines of the deepest completed iteration, best first
+	 */
+	public List<PrincipalVariation> executeMultiPV(final Board board, final int multiPv, final SearchListener listener) {
+		return iterativeDeepening(board, Math.max(1, multiPv), listener);
+	}
+
+	public TranspositionTable getTranspositionTable() {
+		return transpositionTable;
+	}
+
+	private List<PrincipalVariation> iterativeDeepening(final Board board, final int multiPv, final SearchListener listener) {
+		final Object event = EngineEvents.get().beginSearch();
+		clearStatistics();
+		stopped = false;
+		positionHistory = PositionHistory.of(board);
+		if (timeManager != null) {
+			timeManager.start();
+		}
+		List<PrincipalVariation> lines = new ArrayList<>();
+		for (int depth = 1; depth <= searchDepth; depth++) {
+			final long[] iterationStartCounters = counters.clone();
+			final long iterationStartTime = System.nanoTime();
+			final long tableProbes = transpositionTable.getProbes(), tableHits = transpositionTable.getHits(), tableCutoffs = transpositionTable.getCutoffs();
+			final List<Move> excludedMoves = new ArrayList<>();
+			final List<PrincipalVariation> iterationLines = new ArrayList<>();
+			for (int pvIndex = 0; pvIndex < multiPv; pvIndex++) {
+				final Move previousMove = pvIndex < lines.size() ? lines.get(pvIndex).getMove() : null;
+				final Move bestMove = searchRoot(board, depth, excludedMoves, previousMove);
+				if (stopped || bestMove == null) {
+					break;
+				}
+				excludedMoves.add(bestMove);
+				final PrincipalVariation line = new PrincipalVariation(depth, rootScore, Arrays.asList(Arrays.copyOf(principalVariations[0], principalVariationLengths[0])));
+				iterationLines.add(line);
+				if (listener != null) {
+					listener.onPrincipalVariation(pvIndex + 1, line);
+				}
+			}
+			if (stopped) {
+				if (lines.isEmpty()) {
+					lines = iterationLines;
+				}
+				if (lines.isEmpty()) {
+					final Move move = firstLegalMove(board);
+					if (move != null) {
+						lines.add(new PrincipalVariation(0, 0, ImmutableList.of(move)));
+					}
+				}
+				break;
+			}
+			if (iterationLines.isEmpty()) {
+				break;
+			}
+			counters[SearchStatistics.TABLE_PROBES] += transpositionTable.getProbes() - tableProbes;
+			counters[SearchStatistics.TABLE_HITS] += transpositionTable.getHits() - tableHits;
+			counters[SearchStatistics.TABLE_CUTOFFS] += transpositionTable.getCutoffs() - tableCutoffs;
+			final long[] iterationCounters = new long[SearchStatistics.COUNTER_COUNT];
+			for (int i = 0; i < iterationCounters.length; i++) {
+				iterationCounters[i] = counters[i] - iterationStartCounters[i];
+			}
+			iterations.add(new SearchStatistics.Iteration(depth, iterationCounters, System.nanoTime() - iterationStartTime, iterations.isEmpty() ? null : iterations.get(iterations.size() - 1)));
+			lines = iterationLines;
+			bestScore = lines.get(0).getScore();
+			if (timeManager != null && !timeManager.shouldStartNextIteration(lines.get(0).getMove(), bestScore)) {
+				break;
+			}
+		}
+		EngineEvents.get().endSearch(event, lines.isEmpty() ? 0 : lines.get(0).getDepth(), getNodes(), transpositionTable.getHitRate(), bestScore, lines.isEmpty() ? null : lines.get(0).getMove());
+		return lines;
+	}
+
+	/**
+	 * search all root moves except excluded ones
+	 * @param board root board
+	 * @param depth search depth
+	 * @param excludedMoves moves already reported as better lines
+	 * @param previousMove best move of this line in the previous iteration, searched first
+	 * @return best move, its score is left in rootScore; null if no move is left
+	 */
+	private Move searchRoot(final Board board, final int depth, final List<Move> excludedMoves, final Move previousMove) {
+		int alpha = -INFINITE_SCORE;
+		Move bestMove = null;
+		for (final Move move : orderRootMoves(board, previousMove)) {
+			if (excludedMoves.contains(move)) {
+				continue;
+			}
+			final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+			if (!transition.getMoveStatus().isDone()) {
+				continue;
+			}
+			positionHistory.push(transition.getToBoard().getZobristHash());
+			int score;
+			if (bestMove == null) {
+				score = -search(transition.getToBoard(), depth - 1, 1, -INFINITE_SCORE, -alpha, true);
+			} else {
+				score = -search(transition.getToBoard(), depth - 1, 1, -alpha - 1, -alpha, true);
+				if (score > alpha) {
+					score = -search(transition.getToBoard(), depth - 1, 1, -INFINITE_SCORE, -alpha, true);
+				}
+			}
+			positionHistory.pop();
+			if (stopped) {
+				return null;
+			}
+			if (score > alpha) {
+				alpha = score;
+				bestMove = move;
+				updatePrincipalVariation(0, move);
+			}
+		}
+		if (bestMove != null && excludedMoves.isEmpty()) {
+			transpositionTable.store(board.getZobristHash(), packMove(bestMove), alpha, depth, TranspositionTable.EXACT, 0);
+		}
+		rootScore = alpha;
+		return bestMove;
+	}
+
+	/**
+	 * triangular principal variation table: row ply holds the best line found from
+	 * that ply, a new best move is prepended to the line its child left in row ply + 1
+	 */
+	private void updatePrincipalVariation(final int ply, final Move move) {
+		final Move[] line = principalVariations[ply];
+		final int childLength = principalVariationLengths[ply + 1];
+		line[ply] = move;
+		System.arraycopy(principalVariations[ply + 1], ply + 1, line, ply + 1, childLength - ply - 1);
+		principalVariationLengths[ply] = Math.max(ply + 1, childLength);
+	}
+
+	/**
+	 * the board must be on top of the position history
+	 * @return score from the point of view of the player to move
+	 */
+	private int search(final Board board, int depth, final int ply, int alpha, final int beta, final boolean allowNullMove) {
+		principalVariationLengths[ply] = ply;
+		if (isDraw(board)) {
+			return 0;
+		}
+		if (tablebase != null) {
+			final int value = tablebase.probe(board);
+			if (value != Tablebase.NOT_FOUND) {
+				counters[SearchStatistics.TABLEBASE_HITS]++;
+				if (Tablebase.isWin(value)) {
+					return MATE_SCORE - ply - Tablebase.getDistanceToMate(value);
+				}
+				return Tablebase.isLoss(value) ? -MATE_SCORE + ply + Tablebase.getDistanceToMate(value) : 0;
+			}
+		}
+		if (depth <= 0) {
+			return quiescence(board, ply, alpha, beta);
+		}
+		counters[SearchStatistics.NODES]++;
+		if (isTimeUp()) {
+			return 0;
+		}
+		if (ply >= MAX_PLY) {
+			return evaluate(board);
+		}
+		final Player currentPlayer = board.getCurrentPlayer();
+		final boolean isPvNode = beta - alpha > 1;
+		final boolean inCheck = currentPlayer.isInCheck();
+		if (inCheck) {
+			depth++;
+		}
+		final int originalAlpha = alpha;
+		final long key = board.getZobristHash();
+		final int slot = transpositionTable.probe(key);
+		int hashMove = TranspositionTable.NO_MOVE;
+		if (slot >= 0) {
+			hashMove = transpositionTable.getMove(slot);
+			if (!isPvNode && transpositionTable.getDepth(slot) >= depth) {
+				final int tableScore = transpositionTable.getScore(slot, ply);
+				final int flag = transpositionTable.getFlag(slot);
+				if (flag == TranspositionTable.EXACT || (flag == TranspositionTable.LOWER_BOUND && tableScore >= beta) || (flag == TranspositionTable.UPPER_BOUND && tableScore <= alpha)) {
+					transpositionTable.recordCutoff();
+					return tableScore;
+				}
+			}
+		}
+		final int staticEvaluation = inCheck ? -INFINITE_SCORE : evaluate(board);
+		if (!isPvNode && !inCheck) {
+			if (reverseFutilityPruning && depth <= 3 && Math.abs(beta) < MATE_BOUND && staticEvaluation - REVERSE_FUTILITY_MARGIN * depth >= beta) {
+				counters[SearchStatistics.REVERSE_FUTILITY_PRUNES]++;
+				return staticEvaluation - REVERSE_FUTILITY_MARGIN * depth;
+			}
+			if (razoring && depth <= 3 && staticEvaluation + RAZOR_MARGIN[depth] < alpha) {
+				final int razorScore = quiescence(board, ply, alpha - 1, alpha);
+				if (razorScore < alpha) {
+					counters[SearchStatistics.RAZOR_PRUNES]++;
+					return razorScore;
+				}
+			}
+			if (nullMovePruning && allowNullMove && depth >= 3 && staticEvaluation >= beta && hasNonPawnMaterial(currentPlayer)) {
+				final int reduction = depth > 6 ? 3 : 2;
+				final Board nullMoveBoard = new NullMove(board).execute();
+				positionHistory.push(nullMoveBoard.getZobristHash());
+				final int nullMoveScore = -search(nullMoveBoard, depth - 1 - reduction, ply + 1, -beta, -beta + 1, false);
+				positionHistory.pop();
+				if (stopped) {
+					return 0;
+				}
+				if (nullMoveScore >= beta) {
+					counters[SearchStatistics.NULL_MOVE_CUTOFFS]++;
+					return nullMoveScore >= MATE_BOUND ? beta : nullMoveScore;
+				}
+			}
+		}
+		final boolean canFutilityPrune = futilityPruning && !isPvNode && !inCheck && depth <= 3 && Math.abs(alpha) < MATE_BOUND && staticEvaluation + FUTILITY_MARGIN[depth] <= alpha;
+		int bestScore = -INFINITE_SCORE, legalMoveCount = 0;
+		Move bestMove = null;
+		final MovePicker movePicker = movePickers[ply];
+		movePicker.reset(board, hashMove, killerMoves[ply]);
+		for (Move move = movePicker.next(); move != null; move = movePicker.next()) {
+			final MoveTransition transition = currentPlayer.makeGeneratedMove(move);
+			if (!transition.getMoveStatus().isDone()) {
+				continue;
+			}
+			legalMoveCount++;
+			final Board toBoard = transition.getToBoard();
+			final boolean isQuiet = isQuiet(move);
+			final boolean givesCheck = toBoard.getCurrentPlayer().isInCheck();
+			if (canFutilityPrune && legalMoveCount > 1 && isQuiet && !givesCheck) {
+				counters[SearchStatistics.FUTILITY_PRUNES]++;
+				continue;
+			}
+			positionHistory.push(toBoard.getZobristHash());
+			int score;
+			if (legalMoveCount == 1) {
+				score = -search(toBoard, depth - 1, ply + 1, -beta, -alpha, true);
+			} else {
+				int reduction = 0;
+				if (lateMoveReductions && depth >= 3 && legalMoveCount > LATE_MOVE_THRESHOLD && isQuiet && !inCheck && !givesCheck && !isKillerMove(move, ply)) {
+					reduction = legalMoveCount > 2 * LATE_MOVE_THRESHOLD ? 2 : 1;
+					counters[SearchStatistics.LATE_MOVE_REDUCTIONS]++;
+				}
+				score = -search(toBoard, depth - 1 - reduction, ply + 1, -alpha - 1, -alpha, true);
+				if (score > alpha && reduction > 0) {
+					score = -search(toBoard, depth - 1, ply + 1, -alpha - 1, -alpha, true);
+				}
+				if (score > alpha && score < beta) {
+					score = -search(toBoard, depth - 1, ply + 1, -beta, -alpha, true);
+				}
+			}
+			positionHistory.pop();
+			if (stopped) {
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				bestMove = move;
+			}
+			if (score > alpha) {
+				alpha = score;
+				updatePrincipalVariation(ply, move);
+			}
+			if (alpha >= beta) {
+				counters[SearchStatistics.BETA_CUTOFFS]++;
+				if (legalMoveCount == 1) {
+					counters[SearchStatistics.FIRST_MOVE_CUTOFFS]++;
+				}
+				if (isQuiet) {
+					storeKillerMove(move, ply);
+					historyScores[fromSquare(move)][toSquare(move)] += depth * depth;
+				}
+				break;
+			}
+		}
+		if (legalMoveCount == 0) {
+			return inCheck ? -MATE_SCORE + ply : 0;
+		}
+		final int flag = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND : bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+		transpositionTable.store(key, flag == TranspositionTable.UPPER_BOUND ? TranspositionTable.NO_MOVE : packMove(bestMove), bestScore, depth, flag, ply);
+		return bestScore;
+	}
+
+	/**
+	 * repetition since the root or in the game before it, fifty move rule, or no mating material
+	 * @return true if the board is scored as a draw
+	 */
+	private boolean isDraw(final Board board) {
+		return positionHistory.isRepetition(board.getHalfMoveClock()) || board.isFiftyMoveDraw() || board.isInsufficientMaterial();
+	}
+
+	/**
+	 * search captures and promotions only until the position is quiet
+	 * @return score from the point of view of the player to move
+	 */
+	private int quiescence(final Board board, final int ply, int alpha, final int beta) {
+		principalVariationLengths[ply] = ply;
+		counters[SearchStatistics.NODES]++;
+		counters[SearchStatistics.QUIESCENCE_NODES]++;
+		if (isTimeUp()) {
+			return 0;
+		}
+		final int standPat = evaluate(board, alpha, beta);
+		if (ply >= MAX_PLY || standPat >= beta) {
+			return standPat;
+		}
+		if (standPat > alpha) {
+			alpha = standPat;
+		}
+		int bestScore = standPat;
+		for (final Move move : orderMoves(board.getCurrentPlayer().getAttackMoves(), ply, TranspositionTable.NO_MOVE)) {
+			final MoveTransition transition = board.getCurrentPlayer().makeGeneratedMove(move);
+			if (!transition.getMoveStatus().isDone()) {
+				continue;
+			}
+			final int score = -quiescence(transition.getToBoard(), ply + 1, -beta, -alpha);
+			if (stopped) {
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+			}
+			if (score > alpha) {
+				alpha = score;
+			}
+			if (alpha >= beta) {
+				break;
+			}
+		}
+		return bestScore;
+	}
+
+	/**
+	 * evaluate board from the point of view of the player to move
+	 * @param board board to evaluate
+	 * @return score
+	 */
+	private int evaluate(final Board board) {
+		final int score = evaluator.evaluate(board, 0);
+		return board.getCurrentPlayer().getAlliance().isWhite() ? score : -score;
+	}
+
+	/**
+	 * evaluate board from the point of view of the player to move, the evaluator
+	 * may answer lazily when the score is far outside [alpha, beta]
+	 * @param board board to evaluate
+	 * @param alpha lower bound, player to move point of view
+	 * @param beta upper bound, player to move point of view
+	 * @return score
+	 */
+	private int evaluate(final Board board, final int alpha, final int beta) {
+		if (board.getCurrentPlayer().getAlliance().isWhite()) {
+			return evaluator.evaluate(board, 0, alpha, beta);
+		}
+		return -evaluator.evaluate(board, 0, -beta, -alpha);
+	}
+
+	/**
+	 * order moves: hash move, captures by most valuable victim / least valuable attacker,
+	 * promotions, killer moves, then quiet moves by history score
+	 * @param moves moves to order
+	 * @param ply distance from root
+	 * @param hashMove packed move from the transposition table, searched first
+	 * @return ordered copy of moves
+	 */
+	private List<Move> orderMoves(final List<Move> moves, final int ply, final int hashMove) {
+		final List<Move> orderedMoves = new ArrayList<>(moves);
+		final int[] scores = new int[orderedMoves.size()];
+		for (int i = 0; i < scores.length; i++) {
+			scores[i] = scoreMove(orderedMoves.get(i), ply, hashMove);
+		}
+		for (int i = 1; i < scores.length; i++) {
+			final int score = scores[i];
+			final Move move = orderedMoves.get(i);
+			int j = i - 1;
+			while (j >= 0 && scores[j] < score) {
+				scores[j + 1] = scores[j];
+				orderedMoves.set(j + 1, orderedMoves.get(j));
+				j--;
+			}
+			scores[j + 1] = score;
+			orderedMoves.set(j + 1, move);
+		}
+		return orderedMoves;
+	}
+
+	private List<Move> orderRootMoves(final Board board, final Move previousBestMove) {
+		final int slot = transpositionTable.probe(board.getZobristHash());
+		final List<Move> orderedMoves = orderMoves(board.getCurrentPlayer().getLegalMoves(), 0, slot >= 0 ? transpositionTable.getMove(slot) : TranspositionTable.NO_MOVE);
+		if (previousBestMove != null && orderedMoves.remove(previousBestMove)) {
+			orderedMoves.add(0, previousBestMove);
+		}
+		return orderedMoves;
+	}
+
+	private int scoreMove(final Move move, final int ply, final int hashMove) {
+		if (hashMove != TranspositionTable.NO_MOVE && packMove(move) == hashMove) {
+			return 2000000;
+		}
+		if (move.isAttack()) {
+			return 1000000 + 100 * move.getAttackedPiece().getPieceValue() - move.getMovedPiece().getPieceValue();
+		}
+		if (move instanceof PawnPromotion) {
+			return 900000;
+		}
+		if (move.equals(killerMoves[ply][0])) {
+			return 800000;
+		}
+		if (move.equals(killerMoves[ply][1])) {
+			return 700000;
+		}
+		return historyScores[fromSquare(move)][toSquare(move)];
+	}
+
+	private boolean isKillerMove(final Move move, final int ply) {
+		return move.equals(killerMoves[ply][0]) || move.equals(killerMoves[ply][1]);
+	}
+
+	private void storeKillerMove(final Move move, final int ply) {
+		if (!move.equals(killerMoves[ply][0])) {
+			killerMoves[ply][1] = killerMoves[ply][0];
+			killerMoves[ply][0] = move;
+		}
+	}
+
+	/**
+	 * check hard deadline, once it is hit every pending search returns at once
+	 * @return true if search has been stopped
+	 */
+	private boolean isTimeUp() {
+		if (!stopped && timeManager != null && timeManager.isHardLimitReached(getNodes())) {
+			stopped = true;
+		}
+		return stopped;
+	}
+
+	private static Move firstLegalMove(final Board board) {
+		for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
+			if (board.getCurrentPlayer().makeMove(move).getMoveStatus().isDone()) {
+				return move;
+			}
+		}
+		return null;
+	}
+
+	private void clearStatistics() {
+		counters = statistics.stripe();
+		searchStartCounters = counters.clone();
+		iterations.clear();
+		transpositionTable.clearStatistics();
+		for (final Move[] killers : killerMoves) {
+			killers[0] = null;
+			killers[1] = null;
+		}
+		for (final int[] history : historyScores) {
+			Arrays.fill(history, 0);
+		}
+	}
+
+	private static boolean isQuiet(final Move move) {
+		return !move.isAttack() && !(move instanceof PawnPromotion);
+	}
+
+	/**
+	 * zugzwang guard: null move is unsafe when only king and pawns are left
+	 * @param player player to move
+	 * @return true if player has a knight, bishop, rook or queen
+	 */
+	private static boolean hasNonPawnMaterial(final Player player) {
+		for (final Piece piece : player.getActivePieces()) {
+			if (!piece.getPieceType().isKing() && piece.getPieceType() != Piece.PieceType.PAWN) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static int packMove(final Move move) {
+		return TranspositionTable.packMove(fromSquare(move), toSquare(move));
+	}
+
+	static int fromSquare(final Move move) {
+		return move.getCurrentPositionX() + 8 * move.getCurrentPositionY();
+	}
+
+	static int toSquare(final Move move) {
+		return move.getDestinationPositionX() + 8 * move.getDestinationPositionY();
+	}
+}
@@ -0,0 +1,26 @@
+package chess.engine.player.ai;
+
+import chess.engine.board.Board;
+
+public interface BoardEvaluator {
+	/**
+	 * evaluate a board
+	 * @param board board to evaluate
+	 * @param depth remaining search depth
+	 * @return score from white point of view, positive is good for white
+	 */
+	int evaluate(Board board, int depth);
+
+	/**
+	 * evaluate a board when the caller only needs to know how the score relates to a window,
+	 * an evaluator may return an approximate score if it is far outside [lowerBound, upperBound]
+	 * @param board board to evaluate
+	 * @param depth remaining search depth
+	 * @param lowerBound lower end of the window, white point of view
+	 * @param upperBound upper end of the window, white point of view
+	 * @return score from white point of view
+	 */
+	default int evaluate(Board board, int depth, int lowerBound, int upperBound) {
+		return evaluate(board, depth);
+	}
+}
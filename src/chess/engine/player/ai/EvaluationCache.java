@@ -0,0 +1,77 @@
+package chess.engine.player.ai;
+
+public final class EvaluationCache {
+	public static final int NO_VALUE = Integer.MIN_VALUE;
+
+	private final int indexMask;
+	private final long[] keys;
+	private final int[] scores;
+	private long probes, hits, lazyExits;
+
+	public EvaluationCache(final int sizeBits) {
+		final int size = 1 << sizeBits;
+		this.indexMask = size - 1;
+		this.keys = new long[size];
+		this.scores = new int[size];
+	}
+
+	public EvaluationCache() {
+		this(16);
+	}
+
+	/**
+	 * look up a full evaluation
+	 * @param key zobrist hash of the board
+	 * @return cached score, NO_VALUE on a miss
+	 */
+	public int probe(final long key) {
+		probes++;
+		final int slot = (int) key & indexMask;
+		if (keys[slot] == key && scores[slot] != NO_VALUE) {
+			hits++;
+			return scores[slot];
+		}
+		return NO_VALUE;
+	}
+
+	/**
+	 * store a full evaluation, replacing whatever used the slot
+	 * @param key zobrist hash of the board
+	 * @param score full evaluation
+	 */
+	public void store(final long key, final int score) {
+		final int slot = (int) key & indexMask;
+		keys[slot] = key;
+		scores[slot] = score;
+	}
+
+	void recordLazyExit() {
+		lazyExits++;
+	}
+
+	public long getProbes() {
+		return probes;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * get number of evaluations answered by material and piece square score alone
+	 * @return lazy exits
+	 */
+	public long getLazyExits() {
+		return lazyExits;
+	}
+
+	public double getHitRate() {
+		return probes == 0 ? 0 : (double) hits / probes;
+	}
+
+	public void clearStatistics() {
+		probes = 0;
+		hits = 0;
+		lazyExits = 0;
+	}
+}
@@ -0,0 +1,342 @@
+package chess.engine.player.ai;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.board.Move.PawnPromotion;
+import chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MonteCarloTreeSearch implements MoveStrategy {
+	public enum RolloutPolicy {
+		/**
+		 * score a new leaf with the board evaluator
+		 */
+		EVALUATION,
+		/**
+		 * play random legal moves from a new leaf, then score the end position
+		 */
+		RANDOM_PLAYOUT
+	}
+
+	private static final double EXPLORATION = 1.5;
+	private static final int VIRTUAL_LOSS = 3;
+
+	private final BoardEvaluator evaluator;
+	private final int iterations, threadCount;
+	private RolloutPolicy rolloutPolicy;
+	private int maxPlayoutPlies;
+	private TimeManager timeManager;
+	private Node root;
+	private final AtomicInteger simulations;
+
+	public MonteCarloTreeSearch(final BoardEvaluator evaluator, final int iterations, final int threadCount) {
+		this.evaluator = evaluator;
+		this.iterations = iterations;
+		this.threadCount = Math.max(1, threadCount);
+		this.rolloutPolicy = RolloutPolicy.EVALUATION;
+		this.maxPlayoutPlies = 40;
+		this.simulations = new AtomicInteger();
+	}
+
+	public MonteCarloTreeSearch(final int iterations) {
+		this(new StandardBoardEvaluator(), iterations, Runtime.getRuntime().availableProcessors());
+	}
+
+	public void setRolloutPolicy(final RolloutPolicy rolloutPolicy) {
+		this.rolloutPolicy = rolloutPolicy;
+	}
+
+	public void setMaxPlayoutPlies(final int maxPlayoutPlies) {
+		this.maxPlayoutPlies = maxPlayoutPlies;
+	}
+
+	/**
+	 * stop on the time manager hard limit as well as on the iteration count
+	 * @param timeManager time manager of the next search, null for iterations only
+	 */
+	public void setTimeManager(final TimeManager timeManager) {
+		this.timeManager = timeManager;
+	}
+
+	/**
+	 * get number of simulations of the last search
+	 * @return simulations
+	 */
+	public int getSimulations() {
+		return simulations.get();
+	}
+
+	/**
+	 * get visits of the root, including those inherited from the previous search
+	 * @return root visits
+	 */
+	public int getRootVisits() {
+		return root == null ? 0 : root.visits;
+	}
+
+	/**
+	 * run simulations on all threads, reusing the subtree of the previous search
+	 * if board is one of its children or grandchildren
+	 * @param board current board
+	 * @return most visited move, null if there is no legal move
+	 */
+	@Override
+	public Move execute(final Board board) {
+		root = findReusableRoot(board);
+		simulations.set(0);
+		if (timeManager != null) {
+			timeManager.start();
+		}
+		final AtomicInteger remaining = new AtomicInteger(iterations);
+		final Thread[] workers = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final Random random = new Random(board.getZobristHash() + i);
+			workers[i] = new Thread(() -> {
+				long count = 0;
+				while (remaining.getAndDecrement() > 0 && (timeManager == null || !timeManager.isHardLimitReached(++count))) {
+					simulate(random);
+					simulations.incrementAndGet();
+				}
+			}, "mcts-" + i);
+			workers[i].start();
+		}
+		for (final Thread worker : workers) {
+			try {
+				worker.join();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		Node bestChild = null;
+		for (final Node child : root.getChildren()) {
+			if (bestChild == null || child.visits > bestChild.visits) {
+				bestChild = child;
+			}
+		}
+		return bestChild == null ? null : toBoardMove(board, bestChild.move);
+	}
+
+	/**
+	 * a reused root holds its own board, equal by hash to the given one but another
+	 * object; hand back the move generated for the given board so makeMove accepts it
+	 * @param board board passed to execute
+	 * @param move move of the tree
+	 * @return move of board with the same squares and type, move itself if there is none
+	 */
+	private static Move toBoardMove(final Board board, final Move move) {
+		if (move.getBoard() == board) {
+			return move;
+		}
+		for (final Move legalMove : board.getCurrentPlayer().getLegalMoves()) {
+			if (AlphaBeta.fromSquare(legalMove) == AlphaBeta.fromSquare(move) && AlphaBeta.toSquare(legalMove) == AlphaBeta.toSquare(move) && legalMove.getClass() == move.getClass()) {
+				return legalMove;
+			}
+		}
+		return move;
+	}
+
+	/**
+	 * one selection, expansion, evaluation and backup pass
+	 */
+	private void simulate(final Random random) {
+		Node node = root;
+		while (node.isExpanded() && !node.isTerminal()) {
+			node = node.selectChild();
+		}
+		final double value;
+		if (node.isTerminal()) {
+			value = node.terminalValue;
+		} else {
+			node.expand();
+			value = node.isTerminal() ? node.terminalValue : rollout(node.board, random);
+		}
+		node.backup(value);
+	}
+
+	/**
+	 * value of a leaf
+	 * @return expected result for the player to move, 1 win, 0 loss
+	 */
+	private double rollout(final Board board, final Random random) {
+		if (rolloutPolicy == RolloutPolicy.EVALUATION) {
+			return winProbability(board);
+		}
+		Board currentBoard = board;
+		boolean sameSide = true;
+		for (int ply = 0; ply < maxPlayoutPlies; ply++) {
+			final Board nextBoard = randomMove(currentBoard, random);
+			if (nextBoard == null) {
+				final double result = currentBoard.getCurrentPlayer().isInCheck() ? 0 : 0.5;
+				return sameSide ? result : 1 - result;
+			}
+			currentBoard = nextBoard;
+			sameSide = !sameSide;
+		}
+		final double result = winProbability(currentBoard);
+		return sameSide ? result : 1 - result;
+	}
+
+	private static Board randomMove(final Board board, final Random random) {
+		final List<Move> moves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+		while (!moves.isEmpty()) {
+			final Move move = moves.remove(random.nextInt(moves.size()));
+			final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+			if (transition.getMoveStatus().isDone()) {
+				return transition.getToBoard();
+			}
+		}
+		return null;
+	}
+
+	private double winProbability(final Board board) {
+		final int score = evaluator.evaluate(board, 0);
+		final int playerScore = board.getCurrentPlayer().getAlliance().isWhite() ? score : -score;
+		return 1.0 / (1.0 + Math.pow(10.0, -playerScore / 400.0));
+	}
+
+	private Node findReusableRoot(final Board board) {
+		if (root != null) {
+			if (root.board.getZobristHash() == board.getZobristHash()) {
+				return root;
+			}
+			for (final Node child : root.getChildren()) {
+				if (child.board.getZobristHash() == board.getZobristHash()) {
+					child.parent = null;
+					return child;
+				}
+				for (final Node grandChild : child.getChildren()) {
+					if (grandChild.board.getZobristHash() == board.getZobristHash()) {
+						grandChild.parent = null;
+						return grandChild;
+					}
+				}
+			}
+		}
+		return new Node(board, null, null, 1.0);
+	}
+
+	/**
+	 * prior probability of a move: captures of valuable pieces and promotions first
+	 */
+	private static double moveWeight(final Move move) {
+		double weight = 1.0;
+		if (move.isAttack()) {
+			weight += move.getAttackedPiece().getPieceValue();
+		}
+		if (move instanceof PawnPromotion) {
+			weight += 8;
+		}
+		return weight;
+	}
+
+	private static final class Node {
+		private static final Node[] NO_CHILDREN = new Node[0];
+
+		private final Board board;
+		private final Move move;
+		private final double prior;
+		private volatile Node parent;
+		private volatile Node[] children;
+		private boolean terminal;
+		private double terminalValue;
+		private int visits, virtualLosses;
+		private double valueSum;
+
+		private Node(final Board board, final Move move, final Node parent, final double prior) {
+			this.board = board;
+			this.move = move;
+			this.parent = parent;
+			this.prior = prior;
+		}
+
+		private boolean isExpanded() {
+			return children != null;
+		}
+
+		private synchronized boolean isTerminal() {
+			return terminal;
+		}
+
+		private Node[] getChildren() {
+			final Node[] nodes = children;
+			return nodes == null ? NO_CHILDREN : nodes;
+		}
+
+		/**
+		 * create one child per legal move, only the first thread to arrive does the work
+		 */
+		private synchronized void expand() {
+			if (children != null) {
+				return;
+			}
+			final List<Move> legalMoves = new ArrayList<>();
+			final List<Board> legalBoards = new ArrayList<>();
+			double totalWeight = 0;
+			for (final Move legalMove : board.getCurrentPlayer().getLegalMoves()) {
+				final MoveTransition transition = board.getCurrentPlayer().makeMove(legalMove);
+				if (transition.getMoveStatus().isDone()) {
+					legalMoves.add(legalMove);
+					legalBoards.add(transition.getToBoard());
+					totalWeight += moveWeight(legalMove);
+				}
+			}
+			final Node[] nodes = new Node[legalMoves.size()];
+			for (int i = 0; i < nodes.length; i++) {
+				nodes[i] = new Node(legalBoards.get(i), legalMoves.get(i), this, moveWeight(legalMoves.get(i)) / totalWeight);
+			}
+			if (nodes.length == 0) {
+				terminal = true;
+				terminalValue = board.getCurrentPlayer().isInCheck() ? 0 : 0.5;
+			}
+			children = nodes;
+		}
+
+		/**
+		 * PUCT selection, the chosen child takes a virtual loss so other threads spread out
+		 * @return selected child
+		 */
+		private synchronized Node selectChild() {
+			final double explorationScale = EXPLORATION * Math.sqrt(visits + virtualLosses + 1);
+			Node bestChild = null;
+			double bestScore = Double.NEGATIVE_INFINITY;
+			for (final Node child : children) {
+				final double score;
+				synchronized (child) {
+					final int childVisits = child.visits + child.virtualLosses;
+					final double meanValue = childVisits == 0 ? 0.5 : child.valueSum / childVisits;
+					score = meanValue + explorationScale * child.prior / (1 + childVisits);
+				}
+				if (score > bestScore) {
+					bestScore = score;
+					bestChild = child;
+				}
+			}
+			synchronized (bestChild) {
+				bestChild.virtualLosses += VIRTUAL_LOSS;
+			}
+			return bestChild;
+		}
+
+		/**
+		 * propagate a leaf value to the root, undoing virtual losses on the way
+		 * @param value expected result for the player to move at this node
+		 */
+		private void backup(final double value) {
+			double playerValue = value;
+			for (Node node = this; node != null; node = node.parent) {
+				synchronized (node) {
+					if (node.parent != null) {
+						node.virtualLosses -= VIRTUAL_LOSS;
+					}
+					node.visits++;
+					node.valueSum += 1 - playerValue;
+				}
+				playerValue = 1 - playerValue;
+			}
+		}
+	}
+}
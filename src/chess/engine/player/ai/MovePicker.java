@@ -0,0 +1,204 @@
+package chess.engine.player.ai;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.board.Move.PawnPromotion;
+import chess.engine.piece.Piece;
+
+import java.util.Arrays;
+
+/**
+ * hand out the moves of a node stage by stage: hash move, captures and promotions,
+ * killer moves, then quiet moves; a stage is only generated once the one before it
+ * is used up, so a cutoff on an early move never pays for the quiet moves; one
+ * picker per ply is reset at every node, so its buffers are allocated only once
+ */
+final class MovePicker {
+	private static final int HASH_MOVE = 0, GENERATE_ATTACKS = 1, ATTACKS = 2, KILLERS = 3, GENERATE_QUIETS = 4, QUIETS = 5, DONE = 6;
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final int[][] historyScores;
+	private final Move[] killerMovesFound;
+	private Board board;
+	private int hashMove;
+	private Move[] killers;
+	private Move hash;
+	private Move[] stageMoves;
+	private int[] stageScores;
+	private int stage, index, stageSize;
+
+	/**
+	 * @param historyScores history scores indexed by source and destination square
+	 * @param killerCount killer moves kept per ply
+	 */
+	MovePicker(final int[][] historyScores, final int killerCount) {
+		this.historyScores = historyScores;
+		this.killerMovesFound = new Move[killerCount];
+		this.stageMoves = new Move[INITIAL_CAPACITY];
+		this.stageScores = new int[INITIAL_CAPACITY];
+		this.stage = DONE;
+	}
+
+	/**
+	 * start handing out the moves of a new node
+	 * @param board current board
+	 * @param hashMove packed move from the transposition table, NO_MOVE if none
+	 * @param killers killer moves of this ply
+	 */
+	void reset(final Board board, final int hashMove, final Move[] killers) {
+		this.board = board;
+		this.hashMove = hashMove;
+		this.killers = killers;
+		this.hash = null;
+		Arrays.fill(killerMovesFound, null);
+		this.stage = HASH_MOVE;
+		this.index = 0;
+		this.stageSize = 0;
+	}
+
+	/**
+	 * get next pseudo legal move
+	 * @return move, null when all stages are used up
+	 */
+	Move next() {
+		while (stage != DONE) {
+			switch (stage) {
+				case HASH_MOVE:
+					stage = GENERATE_ATTACKS;
+					if (hashMove != TranspositionTable.NO_MOVE) {
+						hash = findMove(TranspositionTable.fromSquare(hashMove), TranspositionTable.toSquare(hashMove));
+						if (hash != null) {
+							return hash;
+						}
+					}
+					break;
+				case GENERATE_ATTACKS:
+					stageSize = 0;
+					for (final Move move : board.getCurrentPlayer().getAttackMoves()) {
+						addStageMove(move);
+					}
+					index = 0;
+					stage = ATTACKS;
+					break;
+				case ATTACKS:
+					while (index < stageSize) {
+						final Move move = pickBest();
+						if (!move.equals(hash)) {
+							return move;
+						}
+					}
+					stage = KILLERS;
+					index = 0;
+					break;
+				case KILLERS:
+					while (index < killers.length) {
+						final int killerIndex = index++;
+						final Move killer = killers[killerIndex];
+						if (killer == null) {
+							continue;
+						}
+						final Move move = findMove(AlphaBeta.fromSquare(killer), AlphaBeta.toSquare(killer));
+						if (move != null && isQuiet(move) && !move.equals(hash)) {
+							killerMovesFound[killerIndex] = move;
+							return move;
+						}
+					}
+					stage = GENERATE_QUIETS;
+					break;
+				case GENERATE_QUIETS:
+					stageSize = 0;
+					for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
+						if (isQuiet(move)) {
+							addStageMove(move);
+						}
+					}
+					index = 0;
+					stage = QUIETS;
+					break;
+				case QUIETS:
+					while (index < stageSize) {
+						final Move move = pickBest();
+						if (!move.equals(hash) && !isKillerFound(move)) {
+							return move;
+						}
+					}
+					stage = DONE;
+					board = null;
+					break;
+			}
+		}
+		return null;
+	}
+
+	private void addStageMove(final Move move) {
+		if (stageSize == stageMoves.length) {
+			stageMoves = Arrays.copyOf(stageMoves, 2 * stageSize);
+			stageScores = Arrays.copyOf(stageScores, 2 * stageSize);
+		}
+		stageMoves[stageSize] = move;
+		stageScores[stageSize++] = scoreMove(move);
+	}
+
+	/**
+	 * selection sort one step at a time, most nodes only look at a few moves
+	 * @return best remaining move of the stage
+	 */
+	private Move pickBest() {
+		int best = index;
+		for (int i = index + 1; i < stageSize; i++) {
+			if (stageScores[i] > stageScores[best]) {
+				best = i;
+			}
+		}
+		final Move move = stageMoves[best];
+		stageMoves[best] = stageMoves[index];
+		stageScores[best] = stageScores[index];
+		stageMoves[index] = move;
+		index++;
+		return move;
+	}
+
+	/**
+	 * captures by most valuable victim / least valuable attacker, then promotions;
+	 * quiet moves by history score
+	 */
+	private int scoreMove(final Move move) {
+		if (move.isAttack()) {
+			return 1000000 + 100 * move.getAttackedPiece().getPieceValue() - move.getMovedPiece().getPieceValue();
+		}
+		if (move instanceof PawnPromotion) {
+			return 900000;
+		}
+		return historyScores[AlphaBeta.fromSquare(move)][AlphaBeta.toSquare(move)];
+	}
+
+	/**
+	 * rebuild a move of another node on this board from the moves of the piece on its
+	 * source square only; castles are left to the quiet stage
+	 */
+	private Move findMove(final int fromSquare, final int toSquare) {
+		final Piece piece = board.getTile(fromSquare & 7, fromSquare >>> 3).getPiece();
+		if (piece == null || piece.getPieceAlliance() != board.getCurrentPlayer().getAlliance()) {
+			return null;
+		}
+		for (final Move move : piece.calculateLegalMoves(board)) {
+			if (AlphaBeta.toSquare(move) == toSquare) {
+				return move;
+			}
+		}
+		return null;
+	}
+
+	private boolean isKillerFound(final Move move) {
+		for (final Move killer : killerMovesFound) {
+			if (move.equals(killer)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isQuiet(final Move move) {
+		return !move.isAttack() && !(move instanceof PawnPromotion);
+	}
+}
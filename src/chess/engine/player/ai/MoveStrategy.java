@@ -0,0 +1,13 @@
+package chess.engine.player.ai;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+
+public interface MoveStrategy {
+	/**
+	 * choose a move for the current player
+	 * @param board current board
+	 * @return best move found, null if there is no legal move
+	 */
+	Move execute(Board board);
+}
@@ -0,0 +1,215 @@
+package chess.engine.player.ai;
+
+import chess.engine.Alliance;
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.board.Move.CastleMove;
+import chess.engine.piece.Piece;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * efficiently updatable neural network evaluation: the accumulators of a board are
+ * derived from those of its parent by adding and removing the few inputs touched by
+ * the transition move, only a king move refreshes its own side from scratch
+ */
+public final class NeuralBoardEvaluator implements BoardEvaluator {
+	private static final int DEFAULT_CACHE_SIZE_BITS = 12;
+
+	private final NeuralNetwork network;
+	private final ThreadLocal<AccumulatorCache> accumulatorCache;
+
+	public NeuralBoardEvaluator(final NeuralNetwork network) {
+		this.network = network;
+		this.accumulatorCache = ThreadLocal.withInitial(() -> new AccumulatorCache(network, DEFAULT_CACHE_SIZE_BITS));
+	}
+
+	/**
+	 * @param file network file, see NeuralNetwork.load
+	 * @return evaluator
+	 * @throws IOException if the network cannot be read
+	 */
+	public static NeuralBoardEvaluator load(final Path file) throws IOException {
+		return new NeuralBoardEvaluator(NeuralNetwork.load(file));
+	}
+
+	/**
+	 * @param board board to evaluate
+	 * @param depth remaining search depth
+	 * @return score from white point of view
+	 */
+	@Override
+	public int evaluate(final Board board, final int depth) {
+		final AccumulatorCache cache = accumulatorCache.get();
+		final int slot = accumulate(cache, board);
+		final boolean whiteToMove = board.getCurrentPlayer().getAlliance().isWhite();
+		final int whiteOffset = cache.offset(slot, Alliance.WHITE), blackOffset = cache.offset(slot, Alliance.BLACK);
+		final int score = network.propagate(cache.accumulators, whiteToMove ? whiteOffset : blackOffset, whiteToMove ? blackOffset : whiteOffset, cache.input, cache.hidden1, cache.hidden2);
+		return whiteToMove ? score : -score;
+	}
+
+	/**
+	 * get accumulator cache of the calling thread
+	 * @return accumulator cache
+	 */
+	public AccumulatorCache getAccumulatorCache() {
+		return accumulatorCache.get();
+	}
+
+	/**
+	 * compare the accumulators the cache holds for a board, usually derived from its
+	 * parent, with both sides refreshed from all pieces; evaluates the board first
+	 * @param board board to check
+	 * @return true if the accumulators match a full refresh
+	 */
+	public boolean matchesRefresh(final Board board) {
+		final AccumulatorCache cache = accumulatorCache.get();
+		final int slot = accumulate(cache, board);
+		final int size = network.getAccumulatorSize();
+		final short[] accumulators = cache.accumulators;
+		for (final Alliance perspective : Alliance.values()) {
+			final int offset = cache.offset(slot, perspective);
+			final short[] incremental = new short[size];
+			System.arraycopy(accumulators, offset, incremental, 0, size);
+			refresh(cache, offset, perspective, board);
+			for (int i = 0; i < size; i++) {
+				if (accumulators[offset + i] != incremental[i]) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * find or build the accumulators of a board
+	 * @return slot holding them
+	 */
+	private int accumulate(final AccumulatorCache cache, final Board board) {
+		final long key = board.getZobristHash();
+		final int slot = cache.slot(key);
+		if (cache.keys[slot] == key && cache.filled[slot]) {
+			return slot;
+		}
+		final Move move = board.getTransitionMove();
+		final int parentSlot = move == null ? -1 : cache.slot(move.getBoard().getZobristHash());
+		final boolean parentCached = parentSlot >= 0 && parentSlot != slot && cache.keys[parentSlot] == move.getBoard().getZobristHash() && cache.filled[parentSlot];
+		for (final Alliance perspective : Alliance.values()) {
+			final int offset = cache.offset(slot, perspective);
+			final Piece movedPiece = parentCached ? move.getMovedPiece() : null;
+			if (parentCached && (movedPiece == null || !(movedPiece.getPieceType().isKing() && movedPiece.getPieceAlliance() == perspective))) {
+				System.arraycopy(cache.accumulators, cache.offset(parentSlot, perspective), cache.accumulators, offset, network.getAccumulatorSize());
+				applyTransition(cache, offset, perspective, board, move);
+				cache.updates++;
+			} else {
+				refresh(cache, offset, perspective, board);
+				cache.refreshes++;
+			}
+		}
+		cache.keys[slot] = key;
+		cache.filled[slot] = true;
+		return slot;
+	}
+
+	private void refresh(final AccumulatorCache cache, final int offset, final Alliance perspective, final Board board) {
+		final Piece king = (perspective.isWhite() ? board.getWhitePlayer() : board.getBlackPlayer()).getPlayerKing();
+		final int kingSquare = king.getPiecePositionX() + 8 * king.getPiecePositionY();
+		network.resetAccumulator(cache.accumulators, offset);
+		for (final Piece piece : board.getWhitePiece()) {
+			addPiece(cache, offset, perspective, kingSquare, piece, true);
+		}
+		for (final Piece piece : board.getBlackPiece()) {
+			addPiece(cache, offset, perspective, kingSquare, piece, true);
+		}
+	}
+
+	/**
+	 * same inputs as Board.applyTransition: the moved piece leaves its source, whatever
+	 * stands on the destination arrives, the captured piece and the castling rook move
+	 */
+	private void applyTransition(final AccumulatorCache cache, final int offset, final Alliance perspective, final Board board, final Move move) {
+		final Piece movedPiece = move.getMovedPiece();
+		if (movedPiece == null) {
+			return;
+		}
+		final Piece king = (perspective.isWhite() ? board.getWhitePlayer() : board.getBlackPlayer()).getPlayerKing();
+		final int kingSquare = king.getPiecePositionX() + 8 * king.getPiecePositionY();
+		addPiece(cache, offset, perspective, kingSquare, movedPiece, false);
+		addPiece(cache, offset, perspective, kingSquare, board.getTile(move.getDestinationPositionX(), move.getDestinationPositionY()).getPiece(), true);
+		if (move.isAttack()) {
+			addPiece(cache, offset, perspective, kingSquare, move.getAttackedPiece(), false);
+		}
+		if (move.isCastlingMove()) {
+			final CastleMove castleMove = (CastleMove) move;
+			addPiece(cache, offset, perspective, kingSquare, castleMove.getCastleRook(), false);
+			addPiece(cache, offset, perspective, kingSquare, board.getTile(castleMove.getCastleRookPositionX(), castleMove.getCastleRookPositionY()).getPiece(), true);
+		}
+	}
+
+	private void addPiece(final AccumulatorCache cache, final int offset, final Alliance perspective, final int kingSquare, final Piece piece, final boolean add) {
+		if (piece.getPieceType().isKing()) {
+			return;
+		}
+		final int feature = NeuralNetwork.featureIndex(perspective, kingSquare, piece);
+		if (add) {
+			network.addFeature(cache.accumulators, offset, feature);
+		} else {
+			network.removeFeature(cache.accumulators, offset, feature);
+		}
+	}
+
+	/**
+	 * per thread accumulators of recently evaluated boards, keyed by zobrist hash,
+	 * plus the scratch buffers of the dense layers
+	 */
+	public static final class AccumulatorCache {
+		private final int indexMask, accumulatorSize;
+		private final long[] keys;
+		private final boolean[] filled;
+		private final short[] accumulators;
+		private final int[] input, hidden1, hidden2;
+		private long updates, refreshes;
+
+		private AccumulatorCache(final NeuralNetwork network, final int sizeBits) {
+			final int size = 1 << sizeBits;
+			this.indexMask = size - 1;
+			this.accumulatorSize = network.getAccumulatorSize();
+			this.keys = new long[size];
+			this.filled = new boolean[size];
+			this.accumulators = new short[size * 2 * accumulatorSize];
+			this.input = new int[2 * accumulatorSize];
+			this.hidden1 = new int[network.getHiddenSize1()];
+			this.hidden2 = new int[network.getHiddenSize2()];
+		}
+
+		private int slot(final long key) {
+			return (int) key & indexMask;
+		}
+
+		private int offset(final int slot, final Alliance perspective) {
+			return (2 * slot + perspective.ordinal()) * accumulatorSize;
+		}
+
+		/**
+		 * get number of accumulators derived from the parent board
+		 * @return incremental updates
+		 */
+		public long getUpdates() {
+			return updates;
+		}
+
+		/**
+		 * get number of accumulators rebuilt from all pieces
+		 * @return refreshes
+		 */
+		public long getRefreshes() {
+			return refreshes;
+		}
+
+		public void clearStatistics() {
+			updates = 0;
+			refreshes = 0;
+		}
+	}
+}
@@ -0,0 +1,251 @@
+package chess.engine.player.ai;
+
+import chess.engine.Alliance;
+import chess.engine.piece.Piece;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * quantized HalfKP network: for each side a feature transformer of int16 weights over
+ * (own king square, piece, square) inputs, then two int8 dense layers with clipped
+ * relu and one int8 output neuron
+ */
+public final class NeuralNetwork {
+	static final int MAGIC = 0x434A4E4E;
+	static final int VERSION = 1;
+	private static final int HEADER_SIZE = 20;
+	static final int FEATURE_COUNT = 64 * 10 * 64;
+	private static final int ACTIVATION_MAX = 127;
+	private static final int WEIGHT_SCALE_BITS = 6;
+	private static final int OUTPUT_SCALE = 16;
+	/**
+	 * largest layer sizes load accepts, so a broken header cannot allocate gigabytes
+	 */
+	static final int MAX_ACCUMULATOR_SIZE = 2048;
+	static final int MAX_HIDDEN_SIZE = 1024;
+
+	private final int accumulatorSize, hiddenSize1, hiddenSize2;
+	private final short[] featureWeights, featureBiases;
+	private final byte[] weights1, weights2, outputWeights;
+	private final int[] biases1, biases2;
+	private final int outputBias;
+
+	NeuralNetwork(final int accumulatorSize, final int hiddenSize1, final int hiddenSize2, final short[] featureWeights, final short[] featureBiases, final byte[] weights1, final int[] biases1, final byte[] weights2, final int[] biases2, final byte[] outputWeights, final int outputBias) {
+		this.accumulatorSize = accumulatorSize;
+		this.hiddenSize1 = hiddenSize1;
+		this.hiddenSize2 = hiddenSize2;
+		this.featureWeights = featureWeights;
+		this.featureBiases = featureBiases;
+		this.weights1 = weights1;
+		this.biases1 = biases1;
+		this.weights2 = weights2;
+		this.biases2 = biases2;
+		this.outputWeights = outputWeights;
+		this.outputBias = outputBias;
+	}
+
+	/**
+	 * read a network file: magic, version, layer sizes, then feature weights and biases
+	 * as int16, layer weights as int8 and layer biases as int32, all big endian; the
+	 * layer sizes and the file length are checked before anything is allocated
+	 * @param file network file
+	 * @return network
+	 * @throws IOException if the file cannot be read, has the wrong format, layer sizes out of range or a length not matching them
+	 */
+	public static NeuralNetwork load(final Path file) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+		if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+			throw new IOException("Not a network file of version " + VERSION);
+		}
+		final int accumulatorSize = buffer.getInt(), hiddenSize1 = buffer.getInt(), hiddenSize2 = buffer.getInt();
+		if (accumulatorSize <= 0 || accumulatorSize > MAX_ACCUMULATOR_SIZE || hiddenSize1 <= 0 || hiddenSize1 > MAX_HIDDEN_SIZE || hiddenSize2 <= 0 || hiddenSize2 > MAX_HIDDEN_SIZE) {
+			throw new IOException("Layer sizes " + accumulatorSize + ", " + hiddenSize1 + ", " + hiddenSize2 + " out of range");
+		}
+		final long payload = payloadSize(accumulatorSize, hiddenSize1, hiddenSize2);
+		if (buffer.remaining() != payload) {
+			throw new IOException("Network file has " + buffer.remaining() + " bytes of weights instead of " + payload);
+		}
+		final short[] featureWeights = new short[FEATURE_COUNT * accumulatorSize], featureBiases = new short[accumulatorSize];
+		buffer.asShortBuffer().get(featureWeights);
+		buffer.position(buffer.position() + 2 * featureWeights.length);
+		buffer.asShortBuffer().get(featureBiases);
+		buffer.position(buffer.position() + 2 * featureBiases.length);
+		final byte[] weights1 = new byte[hiddenSize1 * 2 * accumulatorSize], weights2 = new byte[hiddenSize2 * hiddenSize1], outputWeights = new byte[hiddenSize2];
+		final int[] biases1 = new int[hiddenSize1], biases2 = new int[hiddenSize2];
+		buffer.get(weights1);
+		buffer.asIntBuffer().get(biases1);
+		buffer.position(buffer.position() + 4 * biases1.length);
+		buffer.get(weights2);
+		buffer.asIntBuffer().get(biases2);
+		buffer.position(buffer.position() + 4 * biases2.length);
+		buffer.get(outputWeights);
+		final int outputBias = buffer.getInt();
+		return new NeuralNetwork(accumulatorSize, hiddenSize1, hiddenSize2, featureWeights, featureBiases, weights1, biases1, weights2, biases2, outputWeights, outputBias);
+	}
+
+	/**
+	 * @return bytes following the header of a network with these layer sizes
+	 */
+	private static long payloadSize(final int accumulatorSize, final int hiddenSize1, final int hiddenSize2) {
+		return 2L * FEATURE_COUNT * accumulatorSize + 2L * accumulatorSize + 2L * accumulatorSize * hiddenSize1 + 4L * hiddenSize1 + (long) hiddenSize1 * hiddenSize2 + 4L * hiddenSize2 + hiddenSize2 + 4;
+	}
+
+	/**
+	 * build a network of random weights, small enough that the accumulators and
+	 * layers stay in their ranges; for checks that need no trained network
+	 * @param accumulatorSize accumulator size of each side
+	 * @param hiddenSize1 size of the first dense layer
+	 * @param hiddenSize2 size of the second dense layer
+	 * @param seed random seed
+	 * @return network
+	 */
+	public static NeuralNetwork random(final int accumulatorSize, final int hiddenSize1, final int hiddenSize2, final long seed) {
+		final Random random = new Random(seed);
+		final short[] featureWeights = new short[FEATURE_COUNT * accumulatorSize], featureBiases = new short[accumulatorSize];
+		for (int i = 0; i < featureWeights.length; i++) {
+			featureWeights[i] = (short) (random.nextInt(65) - 32);
+		}
+		for (int i = 0; i < featureBiases.length; i++) {
+			featureBiases[i] = (short) random.nextInt(64);
+		}
+		final byte[] weights1 = new byte[hiddenSize1 * 2 * accumulatorSize], weights2 = new byte[hiddenSize2 * hiddenSize1], outputWeights = new byte[hiddenSize2];
+		random.nextBytes(weights1);
+		random.nextBytes(weights2);
+		random.nextBytes(outputWeights);
+		final int[] biases1 = new int[hiddenSize1], biases2 = new int[hiddenSize2];
+		for (int i = 0; i < hiddenSize1; i++) {
+			biases1[i] = random.nextInt(1024) - 512;
+		}
+		for (int i = 0; i < hiddenSize2; i++) {
+			biases2[i] = random.nextInt(1024) - 512;
+		}
+		return new NeuralNetwork(accumulatorSize, hiddenSize1, hiddenSize2, featureWeights, featureBiases, weights1, biases1, weights2, biases2, outputWeights, random.nextInt(1024) - 512);
+	}
+
+	/**
+	 * write the network in the format read by load
+	 * @param file network file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(final Path file) throws IOException {
+		try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(accumulatorSize);
+			output.writeInt(hiddenSize1);
+			output.writeInt(hiddenSize2);
+			for (final short weight : featureWeights) {
+				output.writeShort(weight);
+			}
+			for (final short bias : featureBiases) {
+				output.writeShort(bias);
+			}
+			output.write(weights1);
+			for (final int bias : biases1) {
+				output.writeInt(bias);
+			}
+			output.write(weights2);
+			for (final int bias : biases2) {
+				output.writeInt(bias);
+			}
+			output.write(outputWeights);
+			output.writeInt(outputBias);
+		}
+	}
+
+	public int getAccumulatorSize() {
+		return accumulatorSize;
+	}
+
+	/**
+	 * input index of a piece seen from one side: black sees the board mirrored so
+	 * both sides look at their own pieces the same way
+	 * @param perspective side owning the accumulator
+	 * @param kingSquare x + 8 * y of the perspective's king
+	 * @param piece non king piece
+	 * @return feature index
+	 */
+	static int featureIndex(final Alliance perspective, final int kingSquare, final Piece piece) {
+		final boolean white = perspective.isWhite();
+		final int square = piece.getPiecePositionX() + 8 * piece.getPiecePositionY();
+		final int pieceIndex = 2 * piece.getPieceType().ordinal() + (piece.getPieceAlliance() == perspective ? 0 : 1);
+		return ((white ? kingSquare : kingSquare ^ 56) * 10 + pieceIndex) * 64 + (white ? square : square ^ 56);
+	}
+
+	/**
+	 * set an accumulator to the feature biases
+	 */
+	void resetAccumulator(final short[] accumulators, final int offset) {
+		System.arraycopy(featureBiases, 0, accumulators, offset, accumulatorSize);
+	}
+
+	/**
+	 * add the weights of one input, a plain loop the JIT compiles to vector instructions
+	 */
+	void addFeature(final short[] accumulators, final int offset, final int feature) {
+		final int weightOffset = feature * accumulatorSize;
+		for (int i = 0; i < accumulatorSize; i++) {
+			accumulators[offset + i] += featureWeights[weightOffset + i];
+		}
+	}
+
+	void removeFeature(final short[] accumulators, final int offset, final int feature) {
+		final int weightOffset = feature * accumulatorSize;
+		for (int i = 0; i < accumulatorSize; i++) {
+			accumulators[offset + i] -= featureWeights[weightOffset + i];
+		}
+	}
+
+	/**
+	 * run the dense layers
+	 * @param accumulators accumulator storage
+	 * @param sideToMoveOffset accumulator of the player to move
+	 * @param opponentOffset accumulator of the other player
+	 * @param input scratch buffer of 2 * accumulator size
+	 * @param hidden1 scratch buffer of hidden size 1
+	 * @param hidden2 scratch buffer of hidden size 2
+	 * @return score in centipawns from the point of view of the player to move
+	 */
+	int propagate(final short[] accumulators, final int sideToMoveOffset, final int opponentOffset, final int[] input, final int[] hidden1, final int[] hidden2) {
+		for (int i = 0; i < accumulatorSize; i++) {
+			input[i] = clamp(accumulators[sideToMoveOffset + i]);
+			input[accumulatorSize + i] = clamp(accumulators[opponentOffset + i]);
+		}
+		dense(input, 2 * accumulatorSize, weights1, biases1, hidden1, hiddenSize1);
+		dense(hidden1, hiddenSize1, weights2, biases2, hidden2, hiddenSize2);
+		int output = outputBias;
+		for (int i = 0; i < hiddenSize2; i++) {
+			output += outputWeights[i] * hidden2[i];
+		}
+		return output / OUTPUT_SCALE;
+	}
+
+	private static void dense(final int[] input, final int inputSize, final byte[] weights, final int[] biases, final int[] output, final int outputSize) {
+		for (int j = 0; j < outputSize; j++) {
+			final int weightOffset = j * inputSize;
+			int sum = biases[j];
+			for (int i = 0; i < inputSize; i++) {
+				sum += weights[weightOffset + i] * input[i];
+			}
+			output[j] = clamp(sum >> WEIGHT_SCALE_BITS);
+		}
+	}
+
+	private static int clamp(final int value) {
+		return Math.max(0, Math.min(ACTIVATION_MAX, value));
+	}
+
+	int getHiddenSize1() {
+		return hiddenSize1;
+	}
+
+	int getHiddenSize2() {
+		return hiddenSize2;
+	}
+}
@@ -0,0 +1,291 @@
+package chess.engine.player.ai;
+
+import chess.engine.board.Board;
+import chess.engine.piece.Piece;
+
+public final class PawnHashTable {
+	private static final int DOUBLED_MIDGAME = 10, DOUBLED_ENDGAME = 20;
+	private static final int ISOLATED_MIDGAME = 10, ISOLATED_ENDGAME = 20;
+	private static final int BACKWARD_MIDGAME = 8, BACKWARD_ENDGAME = 10;
+	private static final int[] PASSED_MIDGAME = {0, 5, 10, 15, 25, 40, 70, 0};
+	private static final int[] PASSED_ENDGAME = {0, 10, 15, 25, 45, 70, 110, 0};
+	private static final int SHIELD_NEAR = 10, SHIELD_FAR = 5, SHIELD_MISSING = -10;
+
+	private static final long[] FILE_MASK = new long[8];
+	private static final long[] ADJACENT_FILE_MASK = new long[8];
+	private static final long[] WHITE_FRONT_SPAN = new long[64], BLACK_FRONT_SPAN = new long[64];
+	private static final long[] WHITE_SUPPORT_SPAN = new long[64], BLACK_SUPPORT_SPAN = new long[64];
+
+	static {
+		for (int x = 0; x < 8; x++) {
+			for (int y = 0; y < 8; y++) {
+				FILE_MASK[x] |= bit(x, y);
+			}
+		}
+		for (int x = 0; x < 8; x++) {
+			ADJACENT_FILE_MASK[x] = (x > 0 ? FILE_MASK[x - 1] : 0) | (x < 7 ? FILE_MASK[x + 1] : 0);
+		}
+		for (int x = 0; x < 8; x++) {
+			for (int y = 0; y < 8; y++) {
+				final int square = x + 8 * y;
+				for (int file = Math.max(0, x - 1); file <= Math.min(7, x + 1); file++) {
+					for (int rank = 0; rank < 8; rank++) {
+						if (rank < y) {
+							WHITE_FRONT_SPAN[square] |= bit(file, rank);
+						} else if (rank > y) {
+							BLACK_FRONT_SPAN[square] |= bit(file, rank);
+						}
+						if (file != x && rank >= y) {
+							WHITE_SUPPORT_SPAN[square] |= bit(file, rank);
+						}
+						if (file != x && rank <= y) {
+							BLACK_SUPPORT_SPAN[square] |= bit(file, rank);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private final int indexMask;
+	private final long[] keys;
+	private final long[] whitePawns, blackPawns, whitePassedPawns, blackPassedPawns;
+	private final int[] midgameScores, endgameScores, kingSquares, shieldScores;
+	private long probes, hits;
+
+	public PawnHashTable(final int sizeBits) {
+		final int size = 1 << sizeBits;
+		this.indexMask = size - 1;
+		this.keys = new long[size];
+		this.whitePawns = new long[size];
+		this.blackPawns = new long[size];
+		this.whitePassedPawns = new long[size];
+		this.blackPassedPawns = new long[size];
+		this.midgameScores = new int[size];
+		this.endgameScores = new int[size];
+		this.kingSquares = new int[size];
+		this.shieldScores = new int[size];
+	}
+
+	public PawnHashTable() {
+		this(14);
+	}
+
+	/**
+	 * find the pawn structure entry of a board, compute it on a miss
+	 * @param board board to look up
+	 * @return slot of the entry, valid until the next probe
+	 */
+	public int probe(final Board board) {
+		probes++;
+		final long key = board.getPawnZobristHash();
+		final int slot = (int) key & indexMask;
+		if (keys[slot] == key) {
+			hits++;
+		} else {
+			keys[slot] = key;
+			calculatePawnStructure(board, slot);
+		}
+		final int packedKingSquares = packKingSquares(board);
+		if (kingSquares[slot] != packedKingSquares) {
+			kingSquares[slot] = packedKingSquares;
+			shieldScores[slot] = calculateShield(board, slot);
+		}
+		return slot;
+	}
+
+	/**
+	 * get midgame pawn structure and pawn shield score
+	 * @param slot slot returned by probe
+	 * @return score from white point of view
+	 */
+	public int getMidgameScore(final int slot) {
+		return midgameScores[slot] + shieldScores[slot];
+	}
+
+	/**
+	 * get endgame pawn structure score
+	 * @param slot slot returned by probe
+	 * @return score from white point of view
+	 */
+	public int getEndgameScore(final int slot) {
+		return endgameScores[slot];
+	}
+
+	/**
+	 * get passed white pawns, bit x + 8 * y is set for a passed pawn on [x, y]
+	 * @param slot slot returned by probe
+	 * @return passed pawn mask
+	 */
+	public long getWhitePassedPawns(final int slot) {
+		return whitePassedPawns[slot];
+	}
+
+	/**
+	 * get passed black pawns, bit x + 8 * y is set for a passed pawn on [x, y]
+	 * @param slot slot returned by probe
+	 * @return passed pawn mask
+	 */
+	public long getBlackPassedPawns(final int slot) {
+		return blackPassedPawns[slot];
+	}
+
+	public long getProbes() {
+		return probes;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public double getHitRate() {
+		return probes == 0 ? 0 : (double) hits / probes;
+	}
+
+	public void clearStatistics() {
+		probes = 0;
+		hits = 0;
+	}
+
+	private void calculatePawnStructure(final Board board, final int slot) {
+		long white = 0, black = 0;
+		for (final Piece piece : board.getWhitePiece()) {
+			if (piece.getPieceType() == Piece.PieceType.PAWN) {
+				white |= bit(piece.getPiecePositionX(), piece.getPiecePositionY());
+			}
+		}
+		for (final Piece piece : board.getBlackPiece()) {
+			if (piece.getPieceType() == Piece.PieceType.PAWN) {
+				black |= bit(piece.getPiecePositionX(), piece.getPiecePositionY());
+			}
+		}
+		whitePawns[slot] = white;
+		blackPawns[slot] = black;
+		whitePassedPawns[slot] = passedPawns(white, black, WHITE_FRONT_SPAN);
+		blackPassedPawns[slot] = passedPawns(black, white, BLACK_FRONT_SPAN);
+		midgameScores[slot] = structureScore(white, black, true);
+		endgameScores[slot] = structureScore(white, black, false);
+		kingSquares[slot] = -1;
+	}
+
+	/**
+	 * get midgame pawn structure and pawn shield score of pawn masks, without a board
+	 * or a lookup; for the tuner, which keeps the pawn terms fixed
+	 * @param white bit x + 8 * y is set for a white pawn on [x, y]
+	 * @param black bit x + 8 * y is set for a black pawn on [x, y]
+	 * @param whiteKingSquare x + 8 * y of the white king
+	 * @param blackKingSquare x + 8 * y of the black king
+	 * @return score from white point of view, same as getMidgameScore
+	 */
+	public static int midgameScore(final long white, final long black, final int whiteKingSquare, final int blackKingSquare) {
+		return structureScore(white, black, true) + shield(white, whiteKingSquare & 7, whiteKingSquare >>> 3, -1) - shield(black, blackKingSquare & 7, blackKingSquare >>> 3, 1);
+	}
+
+	/**
+	 * get endgame pawn structure score of pawn masks, same as getEndgameScore
+	 * @return score from white point of view
+	 */
+	public static int endgameScore(final long white, final long black) {
+		return structureScore(white, black, false);
+	}
+
+	private static long passedPawns(final long pawns, final long opponentPawns, final long[] frontSpan) {
+		long passed = 0;
+		for (long remaining = pawns; remaining != 0; remaining &= remaining - 1) {
+			final int square = Long.numberOfTrailingZeros(remaining);
+			if ((opponentPawns & frontSpan[square]) == 0) {
+				passed |= 1L << square;
+			}
+		}
+		return passed;
+	}
+
+	/**
+	 * doubled, passed, isolated and backward pawns of one phase
+	 * @return score from white point of view
+	 */
+	private static int structureScore(final long white, final long black, final boolean midgame) {
+		final int doubled = midgame ? DOUBLED_MIDGAME : DOUBLED_ENDGAME, isolated = midgame ? ISOLATED_MIDGAME : ISOLATED_ENDGAME, backward = midgame ? BACKWARD_MIDGAME : BACKWARD_ENDGAME;
+		final int[] passed = midgame ? PASSED_MIDGAME : PASSED_ENDGAME;
+		int score = 0;
+		for (int x = 0; x < 8; x++) {
+			final int whiteOnFile = Long.bitCount(white & FILE_MASK[x]), blackOnFile = Long.bitCount(black & FILE_MASK[x]);
+			if (whiteOnFile > 1) {
+				score -= doubled * (whiteOnFile - 1);
+			}
+			if (blackOnFile > 1) {
+				score += doubled * (blackOnFile - 1);
+			}
+		}
+		for (long pawns = white; pawns != 0; pawns &= pawns - 1) {
+			final int square = Long.numberOfTrailingZeros(pawns), x = square & 7, y = square >>> 3;
+			if ((black & WHITE_FRONT_SPAN[square]) == 0) {
+				score += passed[7 - y];
+			}
+			if ((white & ADJACENT_FILE_MASK[x]) == 0) {
+				score -= isolated;
+			} else if ((white & WHITE_SUPPORT_SPAN[square]) == 0 && y >= 2 && isAttackedByPawn(black, x, y - 1, 1)) {
+				score -= backward;
+			}
+		}
+		for (long pawns = black; pawns != 0; pawns &= pawns - 1) {
+			final int square = Long.numberOfTrailingZeros(pawns), x = square & 7, y = square >>> 3;
+			if ((white & BLACK_FRONT_SPAN[square]) == 0) {
+				score -= passed[y];
+			}
+			if ((black & ADJACENT_FILE_MASK[x]) == 0) {
+				score += isolated;
+			} else if ((black & BLACK_SUPPORT_SPAN[square]) == 0 && y <= 5 && isAttackedByPawn(white, x, y + 1, -1)) {
+				score += backward;
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * own pawns one or two ranks in front of each king
+	 * @return midgame shield score from white point of view
+	 */
+	private int calculateShield(final Board board, final int slot) {
+		final Piece whiteKing = board.getWhitePlayer().getPlayerKing(), blackKing = board.getBlackPlayer().getPlayerKing();
+		return shield(whitePawns[slot], whiteKing.getPiecePositionX(), whiteKing.getPiecePositionY(), -1) - shield(blackPawns[slot], blackKing.getPiecePositionX(), blackKing.getPiecePositionY(), 1);
+	}
+
+	private static int shield(final long pawns, final int kingX, final int kingY, final int direction) {
+		int score = 0;
+		for (int x = Math.max(0, kingX - 1); x <= Math.min(7, kingX + 1); x++) {
+			final int nearY = kingY + direction, farY = kingY + 2 * direction;
+			if (nearY >= 0 && nearY <= 7 && (pawns & bit(x, nearY)) != 0) {
+				score += SHIELD_NEAR;
+			} else if (farY >= 0 && farY <= 7 && (pawns & bit(x, farY)) != 0) {
+				score += SHIELD_FAR;
+			} else {
+				score += SHIELD_MISSING;
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * is [x, y] attacked by a pawn standing one rank further in the given direction
+	 * @param pawns attacking pawns
+	 * @param direction rank step from attacker to target, 1 for black attackers, -1 for white
+	 * @return true if one of pawns attacks [x, y]
+	 */
+	private static boolean isAttackedByPawn(final long pawns, final int x, final int y, final int direction) {
+		final int attackerY = y - direction;
+		if (attackerY < 0 || attackerY > 7) {
+			return false;
+		}
+		return (x > 0 && (pawns & bit(x - 1, attackerY)) != 0) || (x < 7 && (pawns & bit(x + 1, attackerY)) != 0);
+	}
+
+	private static int packKingSquares(final Board board) {
+		final Piece whiteKing = board.getWhitePlayer().getPlayerKing(), blackKing = board.getBlackPlayer().getPlayerKing();
+		return (whiteKing.getPiecePositionX() + 8 * whiteKing.getPiecePositionY()) | (blackKing.getPiecePositionX() + 8 * blackKing.getPiecePositionY()) << 6;
+	}
+
+	private static long bit(final int x, final int y) {
+		return 1L << (x + 8 * y);
+	}
+}
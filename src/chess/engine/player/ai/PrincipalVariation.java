@@ -0,0 +1,51 @@
+package chess.engine.player.ai;
+
+import chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+public final class PrincipalVariation {
+	private final int depth, score;
+	private final List<Move> moves;
+
+	public PrincipalVariation(final int depth, final int score, final List<Move> moves) {
+		this.depth = depth;
+		this.score = score;
+		this.moves = ImmutableList.copyOf(moves);
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * get score of the line
+	 * @return score from the point of view of the player to move at root
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * get first move of the line
+	 * @return root move
+	 */
+	public Move getMove() {
+		return moves.get(0);
+	}
+
+	public List<Move> getMoves() {
+		return moves;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("depth ").append(depth).append(" score ").append(score).append(" pv");
+		for (final Move move : moves) {
+			builder.append(" ").append(move);
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,219 @@
+package chess.engine.player.ai;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ProofNumberSearch {
+	public enum Result {
+		PROVEN, DISPROVEN, UNKNOWN
+	}
+
+	private static final int INFINITE = Integer.MAX_VALUE / 2;
+	private static final long DEPTH_KEY = 0x9E3779B97F4A7C15L;
+
+	private final int indexMask;
+	private final long[] keys;
+	private final int[] proofNumbers, disproofNumbers;
+	private final long nodeLimit;
+	private boolean checksOnly;
+	private long nodes;
+	private boolean aborted;
+
+	/**
+	 * @param tableSizeBits transposition table holds 2 ^ tableSizeBits entries
+	 * @param nodeLimit give up with UNKNOWN after this many nodes
+	 */
+	public ProofNumberSearch(final int tableSizeBits, final long nodeLimit) {
+		final int size = 1 << tableSizeBits;
+		this.indexMask = size - 1;
+		this.keys = new long[size];
+		this.proofNumbers = new int[size];
+		this.disproofNumbers = new int[size];
+		this.nodeLimit = nodeLimit;
+	}
+
+	public ProofNumberSearch() {
+		this(20, 10000000);
+	}
+
+	/**
+	 * only consider checking moves for the attacker, much faster for
+	 * puzzles where every attacking move is a check
+	 * @param checksOnly true to skip quiet attacker moves
+	 */
+	public void setChecksOnly(final boolean checksOnly) {
+		this.checksOnly = checksOnly;
+	}
+
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * prove or disprove that the player to move mates within a number of moves
+	 * @param board position to solve, attacker to move
+	 * @param mateInMoves maximum number of attacker moves
+	 * @return PROVEN, DISPROVEN or UNKNOWN when the node limit is hit
+	 */
+	public Result solve(final Board board, final int mateInMoves) {
+		Arrays.fill(keys, 0);
+		nodes = 0;
+		aborted = false;
+		search(board, mateInMoves, true, INFINITE, INFINITE);
+		if (aborted) {
+			return Result.UNKNOWN;
+		}
+		final int slot = probe(nodeKey(board, mateInMoves, true));
+		if (slot >= 0 && proofNumbers[slot] == 0) {
+			return Result.PROVEN;
+		}
+		return slot >= 0 && disproofNumbers[slot] == 0 ? Result.DISPROVEN : Result.UNKNOWN;
+	}
+
+	/**
+	 * rebuild the mating line after a successful solve
+	 * @param board position given to solve
+	 * @param mateInMoves same depth as given to solve
+	 * @return attacker and defender moves ending in mate, empty if not proven
+	 */
+	public List<Move> getMateLine(final Board board, final int mateInMoves) {
+		final List<Move> line = new ArrayList<>();
+		Board currentBoard = board;
+		int depth = mateInMoves;
+		boolean orNode = true;
+		while (depth > 0 || !orNode) {
+			Move provenMove = null;
+			Board provenBoard = null;
+			final int childDepth = orNode ? depth - 1 : depth;
+			for (final Move move : currentBoard.getCurrentPlayer().getLegalMoves()) {
+				final MoveTransition transition = currentBoard.getCurrentPlayer().makeMove(move);
+				if (!transition.getMoveStatus().isDone()) {
+					continue;
+				}
+				final int slot = probe(nodeKey(transition.getToBoard(), childDepth, !orNode));
+				if (slot >= 0 && proofNumbers[slot] == 0) {
+					provenMove = move;
+					provenBoard = transition.getToBoard();
+					break;
+				}
+			}
+			if (provenMove == null) {
+				break;
+			}
+			line.add(provenMove);
+			currentBoard = provenBoard;
+			depth = childDepth;
+			orNode = !orNode;
+		}
+		return line;
+	}
+
+	/**
+	 * depth first proof number search of one node
+	 * @param depth attacker moves left
+	 * @param orNode true if attacker is to move
+	 * @param proofThreshold stop once proof number reaches this
+	 * @param disproofThreshold stop once disproof number reaches this
+	 */
+	private void search(final Board board, final int depth, final boolean orNode, final int proofThreshold, final int disproofThreshold) {
+		nodes++;
+		final long key = nodeKey(board, depth, orNode);
+		if (orNode && depth == 0) {
+			store(key, INFINITE, 0);
+			return;
+		}
+		if (!orNode && depth == 0) {
+			final boolean mated = board.getCurrentPlayer().isInCheckmate();
+			store(key, mated ? 0 : INFINITE, mated ? INFINITE : 0);
+			return;
+		}
+		final List<Board> children = expand(board, orNode);
+		if (children.isEmpty()) {
+			final boolean mated = !orNode && board.getCurrentPlayer().isInCheck();
+			store(key, mated ? 0 : INFINITE, mated ? INFINITE : 0);
+			return;
+		}
+		final int childDepth = orNode ? depth - 1 : depth;
+		final long[] childKeys = new long[children.size()];
+		for (int i = 0; i < childKeys.length; i++) {
+			childKeys[i] = nodeKey(children.get(i), childDepth, !orNode);
+		}
+		while (true) {
+			int bestIndex = -1, bestNumber = INFINITE, secondNumber = INFINITE, bestOtherNumber = 0;
+			long sum = 0;
+			for (int i = 0; i < childKeys.length; i++) {
+				final int slot = probe(childKeys[i]);
+				final int childProof = slot >= 0 ? proofNumbers[slot] : 1, childDisproof = slot >= 0 ? disproofNumbers[slot] : 1;
+				final int selectNumber = orNode ? childProof : childDisproof, sumNumber = orNode ? childDisproof : childProof;
+				sum = Math.min(INFINITE, sum + sumNumber);
+				if (selectNumber < bestNumber) {
+					secondNumber = bestNumber;
+					bestNumber = selectNumber;
+					bestIndex = i;
+					bestOtherNumber = sumNumber;
+				} else if (selectNumber < secondNumber) {
+					secondNumber = selectNumber;
+				}
+			}
+			final int proofNumber = orNode ? bestNumber : (int) sum, disproofNumber = orNode ? (int) sum : bestNumber;
+			if (proofNumber >= proofThreshold || disproofNumber >= disproofThreshold || aborted) {
+				store(key, proofNumber, disproofNumber);
+				return;
+			}
+			if (nodes >= nodeLimit) {
+				aborted = true;
+				store(key, proofNumber, disproofNumber);
+				return;
+			}
+			final int childProofThreshold, childDisproofThreshold;
+			if (orNode) {
+				childProofThreshold = Math.min(proofThreshold, secondNumber == INFINITE ? INFINITE : secondNumber + 1);
+				childDisproofThreshold = clamp((long) disproofThreshold - disproofNumber + bestOtherNumber);
+			} else {
+				childDisproofThreshold = Math.min(disproofThreshold, secondNumber == INFINITE ? INFINITE : secondNumber + 1);
+				childProofThreshold = clamp((long) proofThreshold - proofNumber + bestOtherNumber);
+			}
+			search(children.get(bestIndex), childDepth, !orNode, childProofThreshold, childDisproofThreshold);
+		}
+	}
+
+	private List<Board> expand(final Board board, final boolean orNode) {
+		final List<Board> children = new ArrayList<>();
+		for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
+			final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+			if (transition.getMoveStatus().isDone() && (!orNode || !checksOnly || transition.getToBoard().getCurrentPlayer().isInCheck())) {
+				children.add(transition.getToBoard());
+			}
+		}
+		return children;
+	}
+
+	private int probe(final long key) {
+		final int slot = (int) key & indexMask;
+		return keys[slot] == key ? slot : -1;
+	}
+
+	private void store(final long key, final int proofNumber, final int disproofNumber) {
+		final int slot = (int) key & indexMask;
+		keys[slot] = key;
+		proofNumbers[slot] = proofNumber;
+		disproofNumbers[slot] = disproofNumber;
+	}
+
+	/**
+	 * the same board is a different node for another depth or side
+	 */
+	private static long nodeKey(final Board board, final int depth, final boolean orNode) {
+		final long key = board.getZobristHash() + (depth * 2 + (orNode ? 1 : 0) + 1) * DEPTH_KEY;
+		return key == 0 ? 1 : key;
+	}
+
+	private static int clamp(final long value) {
+		return (int) Math.max(1, Math.min(INFINITE, value));
+	}
+}
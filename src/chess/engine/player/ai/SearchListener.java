@@ -0,0 +1,10 @@
+package chess.engine.player.ai;
+
+public interface SearchListener {
+	/**
+	 * called every time a line has been searched to a new depth
+	 * @param multiPvIndex 1 for the best line, 2 for the second best ...
+	 * @param principalVariation line with its depth and score
+	 */
+	void onPrincipalVariation(int multiPvIndex, PrincipalVariation principalVariation);
+}
@@ -0,0 +1,146 @@
+package chess.engine.player.ai;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * search counters striped by thread: every thread increments its own array without
+ * synchronization and the arrays are only summed when the totals are read, so any
+ * number of searches can share one instance
+ */
+public final class SearchStatistics {
+	public static final int NODES = 0, QUIESCENCE_NODES = 1, BETA_CUTOFFS = 2, FIRST_MOVE_CUTOFFS = 3;
+	public static final int TABLE_PROBES = 4, TABLE_HITS = 5, TABLE_CUTOFFS = 6;
+	public static final int NULL_MOVE_CUTOFFS = 7, LATE_MOVE_REDUCTIONS = 8, FUTILITY_PRUNES = 9, REVERSE_FUTILITY_PRUNES = 10, RAZOR_PRUNES = 11, TABLEBASE_HITS = 12;
+	public static final int COUNTER_COUNT = 13;
+	private static final String[] COUNTER_NAMES = {"nodes", "qnodes", "cutoffs", "first move cutoffs", "tt probes", "tt hits", "tt cutoffs", "null move cutoffs", "lmr", "futility", "reverse futility", "razor", "tablebase hits"};
+	/**
+	 * unused longs after the counters so two stripes never share a cache line
+	 */
+	private static final int PADDING = 8;
+
+	private final Queue<long[]> stripes;
+	private final ThreadLocal<long[]> stripe;
+
+	public SearchStatistics() {
+		this.stripes = new ConcurrentLinkedQueue<>();
+		this.stripe = ThreadLocal.withInitial(() -> {
+			final long[] counters = new long[COUNTER_COUNT + PADDING];
+			stripes.add(counters);
+			return counters;
+		});
+	}
+
+	/**
+	 * get counters of the calling thread, only that thread may write them
+	 * @return counters indexed by NODES, QUIESCENCE_NODES ...
+	 */
+	public long[] stripe() {
+		return stripe.get();
+	}
+
+	/**
+	 * sum a counter over all threads
+	 * @param counter NODES, QUIESCENCE_NODES ...
+	 * @return total since the last reset
+	 */
+	public long get(final int counter) {
+		long total = 0;
+		for (final long[] counters : stripes) {
+			total += counters[counter];
+		}
+		return total;
+	}
+
+	/**
+	 * zero all counters, only while no search is running
+	 */
+	public void reset() {
+		for (final long[] counters : stripes) {
+			for (int i = 0; i < COUNTER_COUNT; i++) {
+				counters[i] = 0;
+			}
+		}
+	}
+
+	public static String getCounterName(final int counter) {
+		return COUNTER_NAMES[counter];
+	}
+
+	/**
+	 * one line per iteration: depth, nodes, quiescence share, branching factor,
+	 * first move cutoff rate, table hit rate, prunes and time
+	 * @param iterations iterations of a search
+	 * @return report
+	 */
+	public static String format(final List<Iteration> iterations) {
+		final StringBuilder builder = new StringBuilder(String.format("%5s %10s %10s %6s %7s %7s %7s %8s %8s %8s %8s %8s %8s%n", "depth", "nodes", "qnodes", "ebf", "first%", "hit%", "ttcut%", "null", "lmr", "futility", "rfp", "razor", "ms"));
+		for (final Iteration iteration : iterations) {
+			builder.append(String.format("%5d %10d %10d %6.2f %7.1f %7.1f %7.1f %8d %8d %8d %8d %8d %8d%n", iteration.getDepth(), iteration.get(NODES), iteration.get(QUIESCENCE_NODES), iteration.getEffectiveBranchingFactor(), 100 * iteration.getFirstMoveCutoffRate(), 100 * iteration.getTableHitRate(), 100 * iteration.getTableCutoffRate(), iteration.get(NULL_MOVE_CUTOFFS), iteration.get(LATE_MOVE_REDUCTIONS), iteration.get(FUTILITY_PRUNES), iteration.get(REVERSE_FUTILITY_PRUNES), iteration.get(RAZOR_PRUNES), iteration.getNanos() / 1000000));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * counters of one completed iterative deepening iteration
+	 */
+	public static final class Iteration {
+		private final int depth;
+		private final long[] counters;
+		private final long nanos;
+		private final double effectiveBranchingFactor;
+
+		Iteration(final int depth, final long[] counters, final long nanos, final Iteration previous) {
+			this.depth = depth;
+			this.counters = counters;
+			this.nanos = nanos;
+			this.effectiveBranchingFactor = previous == null || previous.get(NODES) == 0 ? 0 : (double) counters[NODES] / previous.get(NODES);
+		}
+
+		public int getDepth() {
+			return depth;
+		}
+
+		/**
+		 * get counter of this iteration only
+		 * @param counter NODES, QUIESCENCE_NODES ...
+		 * @return count
+		 */
+		public long get(final int counter) {
+			return counters[counter];
+		}
+
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * get ratio of the nodes of this iteration to those of the one before
+		 * @return effective branching factor, 0 for the first iteration
+		 */
+		public double getEffectiveBranchingFactor() {
+			return effectiveBranchingFactor;
+		}
+
+		/**
+		 * get share of beta cutoffs caused by the first move searched, a measure of move ordering
+		 * @return rate between 0 and 1
+		 */
+		public double getFirstMoveCutoffRate() {
+			return ratio(FIRST_MOVE_CUTOFFS, BETA_CUTOFFS);
+		}
+
+		public double getTableHitRate() {
+			return ratio(TABLE_HITS, TABLE_PROBES);
+		}
+
+		public double getTableCutoffRate() {
+			return ratio(TABLE_CUTOFFS, TABLE_PROBES);
+		}
+
+		private double ratio(final int counter, final int total) {
+			return counters[total] == 0 ? 0 : (double) counters[counter] / counters[total];
+		}
+	}
+}
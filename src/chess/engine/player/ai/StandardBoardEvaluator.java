@@ -0,0 +1,86 @@
+package chess.engine.player.ai;
+
+import chess.engine.board.Board;
+import chess.engine.piece.PieceSquareTable;
+
+public final class StandardBoardEvaluator implements BoardEvaluator {
+	private static final int DEFAULT_LAZY_MARGIN = 250;
+
+	private final ThreadLocal<PawnHashTable> pawnHashTable = ThreadLocal.withInitial(PawnHashTable::new);
+	private final ThreadLocal<EvaluationCache> evaluationCache = ThreadLocal.withInitial(EvaluationCache::new);
+	private int lazyMargin = DEFAULT_LAZY_MARGIN;
+
+	/**
+	 * tapered material and piece square score, kept up to date by Board on every move,
+	 * plus pawn structure looked up in the pawn hash table
+	 * @param board board to evaluate
+	 * @param depth remaining search depth
+	 * @return score from white point of view
+	 */
+	@Override
+	public int evaluate(final Board board, final int depth) {
+		final EvaluationCache cache = evaluationCache.get();
+		final int cachedScore = cache.probe(board.getZobristHash());
+		if (cachedScore != EvaluationCache.NO_VALUE) {
+			return cachedScore;
+		}
+		final int score = fullEvaluation(board);
+		cache.store(board.getZobristHash(), score);
+		return score;
+	}
+
+	/**
+	 * lazy evaluation: skip the positional terms when material and piece square score
+	 * is already further than the lazy margin outside the window
+	 */
+	@Override
+	public int evaluate(final Board board, final int depth, final int lowerBound, final int upperBound) {
+		final EvaluationCache cache = evaluationCache.get();
+		final int cachedScore = cache.probe(board.getZobristHash());
+		if (cachedScore != EvaluationCache.NO_VALUE) {
+			return cachedScore;
+		}
+		final int materialScore = PieceSquareTable.taper(board.getMidgameScore(), board.getEndgameScore(), board.getGamePhase());
+		if (materialScore + lazyMargin <= lowerBound || materialScore - lazyMargin >= upperBound) {
+			cache.recordLazyExit();
+			return materialScore;
+		}
+		final int score = fullEvaluation(board);
+		cache.store(board.getZobristHash(), score);
+		return score;
+	}
+
+	private int fullEvaluation(final Board board) {
+		final PawnHashTable pawns = pawnHashTable.get();
+		final int slot = pawns.probe(board);
+		return PieceSquareTable.taper(board.getMidgameScore() + pawns.getMidgameScore(slot), board.getEndgameScore() + pawns.getEndgameScore(slot), board.getGamePhase());
+	}
+
+	/**
+	 * set how far outside the window the material score must be to skip the positional terms
+	 * @param lazyMargin margin in centipawns, a very large value turns lazy evaluation off
+	 */
+	public void setLazyMargin(final int lazyMargin) {
+		this.lazyMargin = lazyMargin;
+	}
+
+	public int getLazyMargin() {
+		return lazyMargin;
+	}
+
+	/**
+	 * get pawn hash table of the calling thread
+	 * @return pawn hash table
+	 */
+	public PawnHashTable getPawnHashTable() {
+		return pawnHashTable.get();
+	}
+
+	/**
+	 * get evaluation cache of the calling thread
+	 * @return evaluation cache
+	 */
+	public EvaluationCache getEvaluationCache() {
+		return evaluationCache.get();
+	}
+}
@@ -0,0 +1,124 @@
+package chess.engine.player.ai;
+
+import chess.engine.board.Move;
+
+public final class TimeManager {
+	private static final int DEFAULT_MOVES_TO_GO = 30;
+	private static final long SAFETY_MARGIN = 50;
+	private static final int SCORE_DROP = 30;
+	private static final int DEFAULT_CHECK_INTERVAL = 32;
+
+	private final long softLimit, hardLimit;
+	private long checkMask;
+	private long startTime;
+	private Move previousBestMove;
+	private int previousScore, stableIterations;
+	private double scoreDropFactor;
+
+	/**
+	 * allocate time for one move of a timed game
+	 * @param remainingMillis time left on the clock
+	 * @param incrementMillis increment added after each move
+	 * @param movesToGo moves until next time control, 0 for sudden death
+	 */
+	public TimeManager(final long remainingMillis, final long incrementMillis, final int movesToGo) {
+		final long usableMillis = Math.max(1, remainingMillis - SAFETY_MARGIN);
+		final int moves = movesToGo > 0 ? movesToGo : DEFAULT_MOVES_TO_GO;
+		final long baseMillis = usableMillis / moves + incrementMillis * 3 / 4;
+		this.hardLimit = Math.min(usableMillis, Math.max(baseMillis * 4, 1));
+		this.softLimit = Math.min(this.hardLimit, Math.max(baseMillis, 1));
+		this.checkMask = DEFAULT_CHECK_INTERVAL - 1;
+		start();
+	}
+
+	private TimeManager(final long moveTimeMillis) {
+		this.softLimit = moveTimeMillis;
+		this.hardLimit = moveTimeMillis;
+		this.checkMask = DEFAULT_CHECK_INTERVAL - 1;
+		start();
+	}
+
+	/**
+	 * spend a fixed time on a move, no early stop or extension
+	 * @param moveTimeMillis time for this move
+	 * @return time manager
+	 */
+	public static TimeManager fixedTime(final long moveTimeMillis) {
+		return new TimeManager(moveTimeMillis);
+	}
+
+	/**
+	 * set how often the hard deadline is read from the clock
+	 * @param nodes node interval, rounded down to a power of two
+	 */
+	public void setCheckInterval(final int nodes) {
+		this.checkMask = Integer.highestOneBit(Math.max(1, nodes)) - 1;
+	}
+
+	/**
+	 * restart the clock, called when the search starts
+	 */
+	public void start() {
+		this.startTime = System.nanoTime();
+		this.previousBestMove = null;
+		this.previousScore = 0;
+		this.stableIterations = 0;
+		this.scoreDropFactor = 1.0;
+	}
+
+	/**
+	 * cheap hard deadline check, the clock is only read every check interval nodes
+	 * @param nodes nodes searched so far
+	 * @return true if the search must stop now
+	 */
+	public boolean isHardLimitReached(final long nodes) {
+		return (nodes & checkMask) == 0 && getElapsedMillis() >= hardLimit;
+	}
+
+	/**
+	 * decide after a finished iteration whether to go one ply deeper:
+	 * a best move that stays the same shrinks the budget, a changing best move
+	 * or a falling score stretches it up to the hard limit
+	 * @param bestMove best move of the finished iteration
+	 * @param score score of the finished iteration
+	 * @return true if another iteration should be started
+	 */
+	public boolean shouldStartNextIteration(final Move bestMove, final int score) {
+		if (softLimit == hardLimit) {
+			return getElapsedMillis() < softLimit;
+		}
+		double stabilityFactor = 1.0;
+		if (previousBestMove != null) {
+			if (bestMove.equals(previousBestMove)) {
+				stableIterations++;
+			} else {
+				stableIterations = 0;
+				stabilityFactor = 1.3;
+			}
+			if (score < previousScore - SCORE_DROP) {
+				scoreDropFactor = Math.min(scoreDropFactor * 1.5, 3.0);
+			}
+		}
+		if (stableIterations >= 3) {
+			stabilityFactor = 0.5;
+		} else if (stableIterations == 2) {
+			stabilityFactor = 0.8;
+		}
+		previousBestMove = bestMove;
+		previousScore = score;
+		final long budget = Math.min(hardLimit, (long) (softLimit * stabilityFactor * scoreDropFactor));
+		return getElapsedMillis() < budget;
+	}
+
+	public long getElapsedMillis() {
+		return (System.nanoTime() - startTime) / 1000000;
+	}
+
+	public long getSoftLimit() {
+		return softLimit;
+	}
+
+	public long getHardLimit() {
+		return hardLimit;
+	}
+}
@@ -0,0 +1,151 @@
+package chess.engine.player.ai;
+
+import java.util.Arrays;
+
+public final class TranspositionTable {
+	public static final int EXACT = 1, LOWER_BOUND = 2, UPPER_BOUND = 3;
+	private static final int EMPTY = 0;
+	public static final int NO_MOVE = 0;
+
+	private final int indexMask;
+	private final long[] keys;
+	private final int[] scores, moves;
+	private final byte[] depths, flags;
+	private long probes, hits, cutoffs;
+
+	public TranspositionTable(final int sizeBits) {
+		final int size = 1 << sizeBits;
+		this.indexMask = size - 1;
+		this.keys = new long[size];
+		this.scores = new int[size];
+		this.moves = new int[size];
+		this.depths = new byte[size];
+		this.flags = new byte[size];
+	}
+
+	public TranspositionTable() {
+		this(18);
+	}
+
+	/**
+	 * find the entry of a position
+	 * @param key zobrist hash of the board
+	 * @return slot of the entry, -1 on a miss
+	 */
+	public int probe(final long key) {
+		probes++;
+		final int slot = (int) key & indexMask;
+		if (keys[slot] == key && flags[slot] != EMPTY) {
+			hits++;
+			return slot;
+		}
+		return -1;
+	}
+
+	/**
+	 * store a search result, an entry of another position is always replaced,
+	 * an entry of the same position only by a search at least as deep
+	 * @param key zobrist hash of the board
+	 * @param move packed best move, see packMove
+	 * @param score score from the point of view of the player to move
+	 * @param depth remaining depth of the search
+	 * @param flag EXACT, LOWER_BOUND or UPPER_BOUND
+	 * @param ply distance from root, used to store mate scores relative to this node
+	 */
+	public void store(final long key, final int move, final int score, final int depth, final int flag, final int ply) {
+		final int slot = (int) key & indexMask;
+		final boolean samePosition = keys[slot] == key && flags[slot] != EMPTY;
+		if (samePosition && depths[slot] > depth) {
+			return;
+		}
+		if (move != NO_MOVE || !samePosition) {
+			moves[slot] = move;
+		}
+		keys[slot] = key;
+		scores[slot] = score >= AlphaBeta.MATE_BOUND ? score + ply : score <= -AlphaBeta.MATE_BOUND ? score - ply : score;
+		depths[slot] = (byte) Math.max(0, Math.min(depth, Byte.MAX_VALUE));
+		flags[slot] = (byte) flag;
+	}
+
+	/**
+	 * get stored score adjusted back to the probing node
+	 * @param slot slot returned by probe
+	 * @param ply distance from root
+	 * @return score from the point of view of the player to move
+	 */
+	public int getScore(final int slot, final int ply) {
+		final int score = scores[slot];
+		return score >= AlphaBeta.MATE_BOUND ? score - ply : score <= -AlphaBeta.MATE_BOUND ? score + ply : score;
+	}
+
+	/**
+	 * get best move of the entry
+	 * @param slot slot returned by probe
+	 * @return packed move, NO_MOVE if the search failed low
+	 */
+	public int getMove(final int slot) {
+		return moves[slot];
+	}
+
+	public int getDepth(final int slot) {
+		return depths[slot];
+	}
+
+	public int getFlag(final int slot) {
+		return flags[slot];
+	}
+
+	/**
+	 * record that a probed entry ended the search of its node
+	 */
+	void recordCutoff() {
+		cutoffs++;
+	}
+
+	public long getProbes() {
+		return probes;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public long getCutoffs() {
+		return cutoffs;
+	}
+
+	public double getHitRate() {
+		return probes == 0 ? 0 : (double) hits / probes;
+	}
+
+	public void clearStatistics() {
+		probes = 0;
+		hits = 0;
+		cutoffs = 0;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, 0);
+		Arrays.fill(moves, NO_MOVE);
+		Arrays.fill(flags, (byte) EMPTY);
+		clearStatistics();
+	}
+
+	/**
+	 * pack a move into 13 bits: source square, destination square and a valid bit
+	 * @param fromSquare x + 8 * y of source
+	 * @param toSquare x + 8 * y of destination
+	 * @return packed move, never NO_MOVE
+	 */
+	public static int packMove(final int fromSquare, final int toSquare) {
+		return 1 << 12 | toSquare << 6 | fromSquare;
+	}
+
+	public static int fromSquare(final int packedMove) {
+		return packedMove & 63;
+	}
+
+	public static int toSquare(final int packedMove) {
+		return packedMove >>> 6 & 63;
+	}
+}
@@ -0,0 +1,234 @@
+package chess.engine.tablebase;
+
+import chess.engine.piece.Piece.PieceType;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * pieces of both sides besides the kings, named like KRPvKN with the white side first
+ */
+final class MaterialSignature {
+	private static final String PIECE_ORDER = "QRBNP";
+	private static final Comparator<PieceType> STRONGEST_FIRST = Comparator.comparingInt(pieceType -> PIECE_ORDER.indexOf(pieceType.toString()));
+
+	private final PieceType[] whitePieces, blackPieces;
+	private final String name;
+
+	MaterialSignature(final PieceType[] whitePieces, final PieceType[] blackPieces) {
+		this.whitePieces = whitePieces.clone();
+		this.blackPieces = blackPieces.clone();
+		Arrays.sort(this.whitePieces, STRONGEST_FIRST);
+		Arrays.sort(this.blackPieces, STRONGEST_FIRST);
+		this.name = "K" + sideName(this.whitePieces) + "vK" + sideName(this.blackPieces);
+	}
+
+	/**
+	 * @param name signature like KRvK
+	 * @return signature
+	 */
+	static MaterialSignature parse(final String name) {
+		final String[] sides = name.toUpperCase().split("V");
+		if (sides.length != 2 || !sides[0].startsWith("K") || !sides[1].startsWith("K")) {
+			throw new IllegalArgumentException("Invalid material signature " + name);
+		}
+		return new MaterialSignature(parseSide(sides[0].substring(1)), parseSide(sides[1].substring(1)));
+	}
+
+	private static PieceType[] parseSide(final String side) {
+		final PieceType[] pieceTypes = new PieceType[side.length()];
+		for (int i = 0; i < side.length(); i++) {
+			pieceTypes[i] = pieceTypeOf(side.charAt(i));
+		}
+		return pieceTypes;
+	}
+
+	private static PieceType pieceTypeOf(final char letter) {
+		for (final PieceType pieceType : PieceType.values()) {
+			if (!pieceType.isKing() && pieceType.toString().charAt(0) == letter) {
+				return pieceType;
+			}
+		}
+		throw new IllegalArgumentException("Invalid piece " + letter);
+	}
+
+	private static String sideName(final PieceType[] pieceTypes) {
+		final StringBuilder builder = new StringBuilder();
+		for (final PieceType pieceType : pieceTypes) {
+			builder.append(pieceType);
+		}
+		return builder.toString();
+	}
+
+	String getName() {
+		return name;
+	}
+
+	/**
+	 * code of one piece, three bits per piece type and side with white above black,
+	 * enough for the at most seven pieces of a type in a table; the code of a
+	 * material is the sum over its pieces besides the kings
+	 * @param pieceType type of the piece, not a king
+	 * @param white true for a white piece
+	 * @return code of the piece
+	 */
+	static int pieceCode(final PieceType pieceType, final boolean white) {
+		return 1 << 3 * pieceType.ordinal() + (white ? 15 : 0);
+	}
+
+	/**
+	 * @return sum of the piece codes, the same for every order of the pieces
+	 */
+	int getCode() {
+		int code = 0;
+		for (final PieceType pieceType : whitePieces) {
+			code += pieceCode(pieceType, true);
+		}
+		for (final PieceType pieceType : blackPieces) {
+			code += pieceCode(pieceType, false);
+		}
+		return code;
+	}
+
+	/**
+	 * same test as isTrivialDraw on the code of a material
+	 * @param code sum of the piece codes
+	 * @return true for bare kings or a single minor piece
+	 */
+	static boolean isTrivialDraw(final int code) {
+		return code == 0 || code == pieceCode(PieceType.KNIGHT, true) || code == pieceCode(PieceType.KNIGHT, false) || code == pieceCode(PieceType.BISHOP, true) || code == pieceCode(PieceType.BISHOP, false);
+	}
+
+	PieceType[] getWhitePieces() {
+		return whitePieces;
+	}
+
+	PieceType[] getBlackPieces() {
+		return blackPieces;
+	}
+
+	/**
+	 * @return number of pieces including both kings
+	 */
+	int getPieceCount() {
+		return 2 + whitePieces.length + blackPieces.length;
+	}
+
+	boolean hasPawns() {
+		return name.indexOf('P') >= 0;
+	}
+
+	/**
+	 * no side has material left to mate with, no table is needed
+	 * @return true for bare kings or a single minor piece
+	 */
+	boolean isTrivialDraw() {
+		final int pieces = whitePieces.length + blackPieces.length;
+		return pieces == 0 || pieces == 1 && (name.indexOf('N') >= 0 || name.indexOf('B') >= 0);
+	}
+
+	MaterialSignature flip() {
+		return new MaterialSignature(blackPieces, whitePieces);
+	}
+
+	/**
+	 * tables are only generated with the stronger side as white
+	 * @return true if white is at least as strong as black
+	 */
+	boolean isCanonical() {
+		return compareSides(whitePieces, blackPieces) >= 0;
+	}
+
+	MaterialSignature canonical() {
+		return isCanonical() ? this : flip();
+	}
+
+	/**
+	 * material left after a move
+	 * @param capturedType type of captured piece, null if none
+	 * @param capturedWhite true if the captured piece is white
+	 * @param promotingWhite true if a white pawn promotes, false if a black pawn does, null if none
+	 * @return signature of the next position, not canonical
+	 */
+	MaterialSignature after(final PieceType capturedType, final boolean capturedWhite, final Boolean promotingWhite) {
+		PieceType[] white = whitePieces, black = blackPieces;
+		if (capturedType != null) {
+			if (capturedWhite) {
+				white = remove(white, capturedType);
+			} else {
+				black = remove(black, capturedType);
+			}
+		}
+		if (promotingWhite != null) {
+			if (promotingWhite) {
+				white = promote(white);
+			} else {
+				black = promote(black);
+			}
+		}
+		return new MaterialSignature(white, black);
+	}
+
+	private static PieceType[] remove(final PieceType[] pieceTypes, final PieceType removedType) {
+		final PieceType[] result = new PieceType[pieceTypes.length - 1];
+		boolean removed = false;
+		int count = 0;
+		for (final PieceType pieceType : pieceTypes) {
+			if (!removed && pieceType == removedType) {
+				removed = true;
+			} else {
+				result[count++] = pieceType;
+			}
+		}
+		return result;
+	}
+
+	private static PieceType[] promote(final PieceType[] pieceTypes) {
+		final PieceType[] result = pieceTypes.clone();
+		for (int i = 0; i < result.length; i++) {
+			if (result[i] == PieceType.PAWN) {
+				result[i] = PieceType.QUEEN;
+				break;
+			}
+		}
+		return result;
+	}
+
+	private static int compareSides(final PieceType[] first, final PieceType[] second) {
+		final int value = Integer.compare(sideValue(first), sideValue(second));
+		if (value != 0) {
+			return value;
+		}
+		final int count = Integer.compare(first.length, second.length);
+		return count != 0 ? count : sideName(second).compareTo(sideName(first));
+	}
+
+	private static int sideValue(final PieceType[] pieceTypes) {
+		int value = 0;
+		for (final PieceType pieceType : pieceTypes) {
+			value += pieceType.getPieceValue();
+		}
+		return value;
+	}
+
+	/**
+	 * number of indices: side to move, white king square after symmetry
+	 * reduction and 64 squares for every other piece
+	 * @return index count
+	 */
+	int getIndexCount() {
+		long count = 2L * (hasPawns() ? 32 : 10);
+		for (int i = 1; i < getPieceCount(); i++) {
+			count *= 64;
+		}
+		if (count > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many pieces in " + name);
+		}
+		return (int) count;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
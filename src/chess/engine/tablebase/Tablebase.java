@@ -0,0 +1,185 @@
+package chess.engine.tablebase;
+
+import chess.engine.board.Board;
+import chess.engine.piece.Piece;
+import chess.engine.piece.Piece.PieceType;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * probe memory mapped endgame tables; a value is 0 for a draw, otherwise the
+ * distance to mate in plies plus one, odd distances are wins and even distances
+ * losses for the player to move
+ */
+public final class Tablebase {
+	public static final String FILE_EXTENSION = ".ctb";
+	public static final int NOT_FOUND = -1;
+	static final byte DRAW = 0;
+	static final byte ILLEGAL = (byte) 0xff;
+	static final int MAX_VALUE = 253;
+
+	private final int maxPieces;
+	private final int[] materialCodes;
+	private final TablebaseFile[] materialFiles;
+	private final boolean[] materialFlips;
+	private final ThreadLocal<Probe> probes;
+
+	/**
+	 * index every file under the code of its material and, flipped, under the code of
+	 * the colors swapped, sorted by code for a binary search without boxing
+	 */
+	private Tablebase(final List<TablebaseFile> files) {
+		final Map<Integer, TablebaseFile> byCode = new TreeMap<>();
+		final Map<Integer, Boolean> flips = new HashMap<>();
+		int pieces = 0;
+		for (final TablebaseFile file : files) {
+			pieces = Math.max(pieces, file.getMaterial().getPieceCount());
+			final int flippedCode = file.getMaterial().flip().getCode();
+			if (!byCode.containsKey(flippedCode)) {
+				byCode.put(flippedCode, file);
+				flips.put(flippedCode, true);
+			}
+		}
+		for (final TablebaseFile file : files) {
+			byCode.put(file.getMaterial().getCode(), file);
+			flips.put(file.getMaterial().getCode(), false);
+		}
+		this.maxPieces = pieces;
+		this.materialCodes = new int[byCode.size()];
+		this.materialFiles = new TablebaseFile[byCode.size()];
+		this.materialFlips = new boolean[byCode.size()];
+		int index = 0;
+		for (final Map.Entry<Integer, TablebaseFile> entry : byCode.entrySet()) {
+			materialCodes[index] = entry.getKey();
+			materialFiles[index] = entry.getValue();
+			materialFlips[index++] = flips.get(entry.getKey());
+		}
+		this.probes = ThreadLocal.withInitial(() -> new Probe(maxPieces, materialFiles.length));
+	}
+
+	/**
+	 * map every table file of a directory
+	 * @param directory directory written by TablebaseGenerator
+	 * @return tablebase
+	 * @throws IOException if a table cannot be read
+	 */
+	public static Tablebase open(final Path directory) throws IOException {
+		final List<TablebaseFile> files = new ArrayList<>();
+		try (final DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+			for (final Path path : stream) {
+				files.add(TablebaseFile.open(path));
+			}
+		}
+		return new Tablebase(files);
+	}
+
+	/**
+	 * get largest number of pieces, kings included, of any table
+	 * @return max pieces
+	 */
+	public int getMaxPieces() {
+		return maxPieces;
+	}
+
+	/**
+	 * look up a board; castling rights are ignored and boards with an en passant
+	 * pawn are not probed; called at every search node, so it works on buffers of
+	 * the calling thread and allocates nothing
+	 * @param board current board
+	 * @return value of the board, NOT_FOUND if no table covers it
+	 */
+	public int probe(final Board board) {
+		final List<Piece> whitePieces = board.getWhitePiece(), blackPieces = board.getBlackPiece();
+		final int count = whitePieces.size() + blackPieces.size();
+		if (count > maxPieces || board.getEnPassantPawn() != null) {
+			return NOT_FOUND;
+		}
+		final Probe probe = probes.get();
+		int code = 0;
+		code += probe.add(whitePieces, TablebasePosition.WHITE, 0);
+		code += probe.add(blackPieces, TablebasePosition.BLACK, whitePieces.size());
+		if (MaterialSignature.isTrivialDraw(code)) {
+			return DRAW;
+		}
+		final int material = Arrays.binarySearch(materialCodes, code);
+		if (material < 0) {
+			return NOT_FOUND;
+		}
+		final TablebaseFile file = materialFiles[material];
+		TablebasePosition position = probe.positions[material];
+		if (position == null) {
+			position = new TablebasePosition(file.getMaterial());
+			probe.positions[material] = position;
+		}
+		position.setPieces(count, probe.types, probe.colors, probe.squares, board.getCurrentPlayer().getAlliance().isWhite() ? TablebasePosition.WHITE : TablebasePosition.BLACK, materialFlips[material]);
+		final int value = file.probe(position.encode());
+		return value == (ILLEGAL & 0xff) ? NOT_FOUND : value;
+	}
+
+	/**
+	 * @param value value returned by probe
+	 * @return true if the player to move mates
+	 */
+	public static boolean isWin(final int value) {
+		return value > 0 && (value - 1) % 2 == 1;
+	}
+
+	/**
+	 * @param value value returned by probe
+	 * @return true if the player to move gets mated
+	 */
+	public static boolean isLoss(final int value) {
+		return value > 0 && (value - 1) % 2 == 0;
+	}
+
+	/**
+	 * @param value win or loss value returned by probe
+	 * @return plies until mate with best play
+	 */
+	public static int getDistanceToMate(final int value) {
+		return value - 1;
+	}
+
+	/**
+	 * pieces of the probed board and one position per table, kept per thread
+	 */
+	private static final class Probe {
+		private final PieceType[] types;
+		private final int[] colors, squares;
+		private final TablebasePosition[] positions;
+
+		private Probe(final int maxPieces, final int materialCount) {
+			this.types = new PieceType[maxPieces];
+			this.colors = new int[maxPieces];
+			this.squares = new int[maxPieces];
+			this.positions = new TablebasePosition[materialCount];
+		}
+
+		/**
+		 * copy the pieces of one side
+		 * @return material code of the side
+		 */
+		private int add(final List<Piece> pieces, final int color, final int offset) {
+			int code = 0;
+			for (int i = 0; i < pieces.size(); i++) {
+				final Piece piece = pieces.get(i);
+				types[offset + i] = piece.getPieceType();
+				colors[offset + i] = color;
+				squares[offset + i] = piece.getPiecePositionX() + 8 * piece.getPiecePositionY();
+				if (!piece.getPieceType().isKing()) {
+					code += MaterialSignature.pieceCode(piece.getPieceType(), color == TablebasePosition.WHITE);
+				}
+			}
+			return code;
+		}
+	}
+}
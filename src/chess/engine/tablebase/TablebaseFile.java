@@ -0,0 +1,128 @@
+package chess.engine.tablebase;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * one table on disk: a header, the offset of every block and the blocks, each block
+ * run length encoded as value and run length pairs; probing reads the memory mapped
+ * file so tables stay out of the heap
+ */
+final class TablebaseFile {
+	static final int MAGIC = 0x434A5442;
+	static final int VERSION = 1;
+	static final int BLOCK_SIZE = 256;
+
+	private final MappedByteBuffer buffer;
+	private final MaterialSignature material;
+	private final int indexCount, offsetsPosition, dataPosition;
+
+	private TablebaseFile(final MappedByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("Not a tablebase file of version " + VERSION);
+		}
+		final int nameLength = buffer.getShort(8) & 0xffff;
+		final byte[] name = new byte[nameLength];
+		for (int i = 0; i < nameLength; i++) {
+			name[i] = buffer.get(10 + i);
+		}
+		this.material = MaterialSignature.parse(new String(name, StandardCharsets.US_ASCII));
+		this.indexCount = buffer.getInt(10 + nameLength);
+		final int blockCount = buffer.getInt(14 + nameLength);
+		this.offsetsPosition = 18 + nameLength;
+		this.dataPosition = offsetsPosition + 4 * (blockCount + 1);
+		if (indexCount != material.getIndexCount()) {
+			throw new IOException("Wrong index count in " + material);
+		}
+	}
+
+	/**
+	 * map a table file read only
+	 * @param file path of the table
+	 * @return table
+	 * @throws IOException if the file cannot be read or is no table
+	 */
+	static TablebaseFile open(final Path file) throws IOException {
+		try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return new TablebaseFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	MaterialSignature getMaterial() {
+		return material;
+	}
+
+	/**
+	 * decode one value, absolute reads keep this safe for concurrent searches
+	 * @param index index of the position
+	 * @return value as stored by the generator
+	 */
+	int probe(final int index) {
+		final int block = index / BLOCK_SIZE;
+		int remaining = index % BLOCK_SIZE;
+		int position = dataPosition + buffer.getInt(offsetsPosition + 4 * block);
+		while (true) {
+			final int runLength = (buffer.get(position + 1) & 0xff) + 1;
+			if (remaining < runLength) {
+				return buffer.get(position) & 0xff;
+			}
+			remaining -= runLength;
+			position += 2;
+		}
+	}
+
+	/**
+	 * compress and write a table, illegal entries take the value before them so
+	 * runs get longer; they are never probed
+	 * @param file path of the table
+	 * @param material material of the table
+	 * @param values value of every index
+	 * @throws IOException if the file cannot be written
+	 */
+	static void write(final Path file, final MaterialSignature material, final byte[] values) throws IOException {
+		final int blockCount = (values.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		final int[] offsets = new int[blockCount + 1];
+		final ByteArrayOutputStream data = new ByteArrayOutputStream();
+		byte previous = Tablebase.DRAW;
+		for (int block = 0; block < blockCount; block++) {
+			offsets[block] = data.size();
+			final int end = Math.min(values.length, (block + 1) * BLOCK_SIZE);
+			int runLength = 0;
+			byte runValue = 0;
+			for (int index = block * BLOCK_SIZE; index < end; index++) {
+				final byte value = values[index] == Tablebase.ILLEGAL ? previous : values[index];
+				previous = value;
+				if (runLength > 0 && (value != runValue || runLength == 256)) {
+					data.write(runValue);
+					data.write(runLength - 1);
+					runLength = 0;
+				}
+				runValue = value;
+				runLength++;
+			}
+			data.write(runValue);
+			data.write(runLength - 1);
+		}
+		offsets[blockCount] = data.size();
+		try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeUTF(material.getName());
+			output.writeInt(values.length);
+			output.writeInt(blockCount);
+			for (final int offset : offsets) {
+				output.writeInt(offset);
+			}
+			data.writeTo(output);
+		}
+	}
+}
@@ -0,0 +1,350 @@
+package chess.engine.tablebase;
+
+import chess.engine.piece.Piece.PieceType;
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * build distance to mate tables by iterating over all positions of a material: pass 0
+ * finds mates and stalemates, pass n finds the positions mating or getting mated in
+ * exactly n plies from the results of the passes before it, so every pass can be split
+ * over threads without locks; captures and promotions look into the tables of the
+ * smaller materials, which are generated first
+ */
+public final class TablebaseGenerator {
+	private static final int MAX_PIECES = 5;
+	private static final int CHUNK_SIZE = 4096;
+	private static final byte STALEMATE = (byte) 0xfe;
+
+	private final int threadCount;
+	private final Map<String, MaterialSignature> materials;
+	private final Map<String, byte[]> tables;
+	private final List<Statistics> statistics;
+
+	public TablebaseGenerator(final int threadCount) {
+		this.threadCount = Math.max(1, threadCount);
+		this.materials = new LinkedHashMap<>();
+		this.tables = new LinkedHashMap<>();
+		this.statistics = new ArrayList<>();
+	}
+
+	public TablebaseGenerator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * generate a table and every table it converts to
+	 * @param name material signature like KRvK or KPvK
+	 */
+	public void generate(final String name) {
+		generate(MaterialSignature.parse(name).canonical());
+	}
+
+	/**
+	 * get statistics of the generated tables, smaller materials first
+	 * @return one entry per table
+	 */
+	public List<Statistics> getStatistics() {
+		return ImmutableList.copyOf(statistics);
+	}
+
+	/**
+	 * write all generated tables
+	 * @param directory output directory, created if missing
+	 * @throws IOException if a file cannot be written
+	 */
+	public void write(final Path directory) throws IOException {
+		Files.createDirectories(directory);
+		for (final Map.Entry<String, byte[]> table : tables.entrySet()) {
+			TablebaseFile.write(directory.resolve(table.getKey() + Tablebase.FILE_EXTENSION), materials.get(table.getKey()), table.getValue());
+		}
+	}
+
+	private byte[] generate(final MaterialSignature material) {
+		if (material.isTrivialDraw()) {
+			return null;
+		}
+		final byte[] existing = tables.get(material.getName());
+		if (existing != null) {
+			return existing;
+		}
+		if (material.getPieceCount() > MAX_PIECES) {
+			throw new IllegalArgumentException("Tables are limited to " + MAX_PIECES + " pieces");
+		}
+		final ChildTable[] children = new ChildTable[48];
+		final int maxChildDistance = createChildTables(material, children);
+		final byte[] values = new byte[material.getIndexCount()];
+		final long startTime = System.currentTimeMillis();
+		runPass(material, values, children, 0);
+		int lastChange = 0, pass = 1;
+		for (; pass < Tablebase.MAX_VALUE; pass++) {
+			if (runPass(material, values, children, pass)) {
+				lastChange = pass;
+			} else if (pass - lastChange >= 2 && pass > maxChildDistance + 1) {
+				break;
+			}
+		}
+		for (int index = 0; index < values.length; index++) {
+			if (values[index] == STALEMATE) {
+				values[index] = Tablebase.DRAW;
+			}
+		}
+		statistics.add(new Statistics(material.getName(), values.length, lastChange, pass, System.currentTimeMillis() - startTime));
+		materials.put(material.getName(), material);
+		tables.put(material.getName(), values);
+		return values;
+	}
+
+	/**
+	 * generate the tables reached by every capture and promotion
+	 * @return longest distance to mate in those tables
+	 */
+	private int createChildTables(final MaterialSignature material, final ChildTable[] children) {
+		final TablebasePosition position = new TablebasePosition(material);
+		int maxDistance = 0;
+		for (int captured = -1; captured < position.getPieceCount(); captured++) {
+			if (captured == TablebasePosition.WHITE_KING || captured == TablebasePosition.BLACK_KING) {
+				continue;
+			}
+			for (int promoted = -1; promoted < position.getPieceCount(); promoted++) {
+				if (captured < 0 && promoted < 0 || promoted >= 0 && (position.getType(promoted) != PieceType.PAWN || captured >= 0 && position.getColor(captured) == position.getColor(promoted))) {
+					continue;
+				}
+				final MaterialSignature childMaterial = material.after(captured < 0 ? null : position.getType(captured), captured >= 0 && position.getColor(captured) == TablebasePosition.WHITE, promoted < 0 ? null : position.getColor(promoted) == TablebasePosition.WHITE);
+				final byte[] values = generate(childMaterial.canonical());
+				children[childKey(captured, promoted)] = new ChildTable(childMaterial.canonical(), !childMaterial.isCanonical(), values);
+				maxDistance = Math.max(maxDistance, longestDistance(values));
+			}
+		}
+		return maxDistance;
+	}
+
+	private static int childKey(final int capturedSlot, final int promotedSlot) {
+		return (capturedSlot + 1) * 8 + promotedSlot + 1;
+	}
+
+	private static int longestDistance(final byte[] values) {
+		int longest = 0;
+		if (values != null) {
+			for (final byte value : values) {
+				final int unsigned = value & 0xff;
+				if (unsigned <= Tablebase.MAX_VALUE) {
+					longest = Math.max(longest, unsigned - 1);
+				}
+			}
+		}
+		return longest;
+	}
+
+	/**
+	 * resolve positions of one pass on all threads
+	 * @return true if any position was resolved
+	 */
+	private boolean runPass(final MaterialSignature material, final byte[] values, final ChildTable[] children, final int pass) {
+		final AtomicInteger nextChunk = new AtomicInteger();
+		final AtomicBoolean changed = new AtomicBoolean();
+		final Thread[] workers = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			workers[i] = new Thread(() -> {
+				final Worker worker = new Worker(material, values, children);
+				for (int chunk = nextChunk.getAndIncrement(); (long) chunk * CHUNK_SIZE < values.length; chunk = nextChunk.getAndIncrement()) {
+					final int end = (int) Math.min(values.length, (long) (chunk + 1) * CHUNK_SIZE);
+					for (int index = chunk * CHUNK_SIZE; index < end; index++) {
+						if (values[index] == Tablebase.DRAW) {
+							final byte value = worker.resolve(index, pass);
+							if (value != Tablebase.DRAW) {
+								values[index] = value;
+								changed.set(true);
+							}
+						}
+					}
+				}
+			}, "tablebase-" + i);
+			workers[i].start();
+		}
+		for (final Thread worker : workers) {
+			try {
+				worker.join();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Tablebase generation interrupted", exception);
+			}
+		}
+		return changed.get();
+	}
+
+	public static final class Statistics {
+		private final String material;
+		private final int positions, longestMate, passes;
+		private final long millis;
+
+		private Statistics(final String material, final int positions, final int longestMate, final int passes, final long millis) {
+			this.material = material;
+			this.positions = positions;
+			this.longestMate = longestMate;
+			this.passes = passes;
+			this.millis = millis;
+		}
+
+		public String getMaterial() {
+			return material;
+		}
+
+		public int getPositions() {
+			return positions;
+		}
+
+		/**
+		 * @return longest distance to mate in plies
+		 */
+		public int getLongestMate() {
+			return longestMate;
+		}
+
+		public int getPasses() {
+			return passes;
+		}
+
+		public long getMillis() {
+			return millis;
+		}
+
+		@Override
+		public String toString() {
+			return material + ": " + positions + " positions, longest mate " + longestMate + " plies, " + passes + " passes in " + millis + " ms";
+		}
+	}
+
+	private static final class ChildTable {
+		private final MaterialSignature material;
+		private final boolean flip;
+		private final byte[] values;
+
+		private ChildTable(final MaterialSignature material, final boolean flip, final byte[] values) {
+			this.material = material;
+			this.flip = flip;
+			this.values = values;
+		}
+	}
+
+	/**
+	 * per thread position and buffers
+	 */
+	private static final class Worker {
+		private final TablebasePosition position;
+		private final byte[] values;
+		private final ChildTable[] children;
+		private final TablebasePosition[] childPositions;
+		private final int[] moves, childColors, childSquares;
+		private final PieceType[] childTypes;
+
+		private Worker(final MaterialSignature material, final byte[] values, final ChildTable[] children) {
+			this.position = new TablebasePosition(material);
+			this.values = values;
+			this.children = children;
+			this.childPositions = new TablebasePosition[children.length];
+			this.moves = new int[TablebasePosition.MAX_MOVES];
+			this.childColors = new int[position.getPieceCount()];
+			this.childSquares = new int[position.getPieceCount()];
+			this.childTypes = new PieceType[position.getPieceCount()];
+		}
+
+		/**
+		 * @param index unresolved index
+		 * @param pass distance to mate resolved by this pass
+		 * @return new value, DRAW while still unresolved
+		 */
+		private byte resolve(final int index, final int pass) {
+			if (!position.decode(index)) {
+				return pass == 0 ? Tablebase.ILLEGAL : Tablebase.DRAW;
+			}
+			final int moveCount = position.generateMoves(moves);
+			int legalMoves = 0, longestWin = -1;
+			boolean allChildrenWin = true;
+			for (int i = 0; i < moveCount; i++) {
+				final int move = moves[i];
+				if (position.makeMove(move)) {
+					legalMoves++;
+					if (pass == 0) {
+						position.unmakeMove(move);
+						return Tablebase.DRAW;
+					}
+					final int child = childValue(move);
+					if (child == Tablebase.DRAW || child > Tablebase.MAX_VALUE || child - 1 >= pass) {
+						allChildrenWin = false;
+					} else if ((child - 1) % 2 == 0) {
+						position.unmakeMove(move);
+						return (byte) (child + 1);
+					} else {
+						longestWin = Math.max(longestWin, child - 1);
+					}
+				}
+				position.unmakeMove(move);
+			}
+			if (legalMoves == 0) {
+				return position.isInCheck(position.getSideToMove()) ? 1 : STALEMATE;
+			}
+			return allChildrenWin && longestWin + 1 == pass ? (byte) (pass + 1) : Tablebase.DRAW;
+		}
+
+		/**
+		 * value of the position after a move, read from this table or a smaller one
+		 */
+		private int childValue(final int move) {
+			final int captured = TablebasePosition.capturedSlot(move);
+			final boolean promotion = TablebasePosition.isPromotion(move);
+			if (captured < 0 && !promotion) {
+				return values[position.encode()] & 0xff;
+			}
+			final int key = childKey(captured, promotion ? TablebasePosition.movedSlot(move) : -1);
+			final ChildTable child = children[key];
+			if (child.values == null) {
+				return Tablebase.DRAW;
+			}
+			for (int slot = 0; slot < childTypes.length; slot++) {
+				childTypes[slot] = position.getType(slot);
+				childColors[slot] = position.getColor(slot);
+				childSquares[slot] = position.getSquare(slot);
+			}
+			if (promotion) {
+				childTypes[TablebasePosition.movedSlot(move)] = PieceType.QUEEN;
+			}
+			if (childPositions[key] == null) {
+				childPositions[key] = new TablebasePosition(child.material);
+			}
+			final TablebasePosition childPosition = childPositions[key];
+			childPosition.setPieces(childTypes.length, childTypes, childColors, childSquares, position.getSideToMove(), child.flip);
+			return child.values[childPosition.encode()] & 0xff;
+		}
+	}
+
+	/**
+	 * generate tables from the command line
+	 * @param args output directory followed by material signatures like KQvK KRvK KPvK
+	 * @throws IOException if a table cannot be written
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("usage: TablebaseGenerator <directory> <material>...");
+			return;
+		}
+		final TablebaseGenerator generator = new TablebaseGenerator();
+		for (int i = 1; i < args.length; i++) {
+			generator.generate(args[i]);
+		}
+		for (final Statistics table : generator.getStatistics()) {
+			System.out.println(table);
+		}
+		generator.write(Paths.get(args[0]));
+	}
+}
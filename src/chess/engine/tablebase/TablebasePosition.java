@@ -0,0 +1,367 @@
+package chess.engine.tablebase;
+
+import chess.engine.piece.Piece.PieceType;
+
+import java.util.Arrays;
+
+/**
+ * small mutable position of one material signature with its own move generator and
+ * index, squares are x + 8 * y like the board, white pawns move towards y = 0;
+ * castling and en passant are not part of tablebase positions
+ */
+final class TablebasePosition {
+	static final int WHITE = 0, BLACK = 1;
+	static final int WHITE_KING = 0, BLACK_KING = 1;
+	static final int MAX_MOVES = 128;
+
+	private static final int[] KING_X = {0, 1, 0, -1, 1, 1, -1, -1};
+	private static final int[] KING_Y = {-1, 0, 1, 0, -1, 1, 1, -1};
+	private static final int[] KNIGHT_X = {1, 2, 2, 1, -1, -2, -2, -1};
+	private static final int[] KNIGHT_Y = {-2, -1, 1, 2, 2, 1, -1, -2};
+	private static final int[] TRIANGLE_INDEX = new int[64];
+	private static final int[] TRIANGLE_SQUARE = new int[10];
+
+	static {
+		Arrays.fill(TRIANGLE_INDEX, -1);
+		int count = 0;
+		for (int file = 0; file < 4; file++) {
+			for (int rank = 0; rank <= file; rank++) {
+				final int square = file + 8 * (7 - rank);
+				TRIANGLE_INDEX[square] = count;
+				TRIANGLE_SQUARE[count++] = square;
+			}
+		}
+	}
+
+	private final MaterialSignature material;
+	private final int pieceCount, kingSquares;
+	private final PieceType[] types;
+	private final int[] colors, squares, occupancy;
+	private int sideToMove;
+	private int undoFrom, undoTo, undoCaptured;
+
+	TablebasePosition(final MaterialSignature material) {
+		this.material = material;
+		this.pieceCount = material.getPieceCount();
+		this.kingSquares = material.hasPawns() ? 32 : 10;
+		this.types = new PieceType[pieceCount];
+		this.colors = new int[pieceCount];
+		this.squares = new int[pieceCount];
+		this.occupancy = new int[64];
+		types[WHITE_KING] = PieceType.KING;
+		colors[WHITE_KING] = WHITE;
+		types[BLACK_KING] = PieceType.KING;
+		colors[BLACK_KING] = BLACK;
+		int slot = 2;
+		for (final PieceType pieceType : material.getWhitePieces()) {
+			types[slot] = pieceType;
+			colors[slot++] = WHITE;
+		}
+		for (final PieceType pieceType : material.getBlackPieces()) {
+			types[slot] = pieceType;
+			colors[slot++] = BLACK;
+		}
+	}
+
+	MaterialSignature getMaterial() {
+		return material;
+	}
+
+	int getPieceCount() {
+		return pieceCount;
+	}
+
+	PieceType getType(final int slot) {
+		return types[slot];
+	}
+
+	int getColor(final int slot) {
+		return colors[slot];
+	}
+
+	/**
+	 * @return square of a piece, -1 while it is captured by makeMove
+	 */
+	int getSquare(final int slot) {
+		return squares[slot];
+	}
+
+	int getSideToMove() {
+		return sideToMove;
+	}
+
+	/**
+	 * set up the position of an index
+	 * @param index index of this material
+	 * @return false if the index is no legal position: pieces on the same square,
+	 * pawns on the first or last rank, or the side not to move in check
+	 */
+	boolean decode(int index) {
+		Arrays.fill(occupancy, 0);
+		for (int slot = pieceCount - 1; slot > 0; slot--) {
+			squares[slot] = index & 63;
+			index >>>= 6;
+		}
+		final int kingIndex = index % kingSquares;
+		sideToMove = index / kingSquares;
+		squares[WHITE_KING] = kingSquares == 10 ? TRIANGLE_SQUARE[kingIndex] : (kingIndex & 3) + 8 * (kingIndex >>> 2);
+		for (int slot = 0; slot < pieceCount; slot++) {
+			final int square = squares[slot];
+			if (occupancy[square] != 0) {
+				return false;
+			}
+			if (types[slot] == PieceType.PAWN && (square >>> 3 == 0 || square >>> 3 == 7)) {
+				return false;
+			}
+			occupancy[square] = slot + 1;
+		}
+		return !isInCheck(1 - sideToMove);
+	}
+
+	/**
+	 * index of the position after symmetry reduction: the white king is moved to
+	 * files a to d, and without pawns also to ranks 1 to 4 below the diagonal
+	 * @return index
+	 */
+	int encode() {
+		final int kingX = squares[WHITE_KING] & 7, kingY = squares[WHITE_KING] >>> 3;
+		final boolean mirrorX = kingX > 3;
+		boolean mirrorY = false, diagonal = false;
+		if (kingSquares == 10) {
+			final int x = mirrorX ? 7 - kingX : kingX;
+			mirrorY = kingY < 4;
+			final int y = mirrorY ? 7 - kingY : kingY;
+			diagonal = 7 - y > x;
+		}
+		final int kingSquare = transform(squares[WHITE_KING], mirrorX, mirrorY, diagonal);
+		int index = sideToMove * kingSquares + (kingSquares == 10 ? TRIANGLE_INDEX[kingSquare] : (kingSquare & 3) + 4 * (kingSquare >>> 3));
+		for (int slot = 1; slot < pieceCount; slot++) {
+			index = index * 64 + transform(squares[slot], mirrorX, mirrorY, diagonal);
+		}
+		return index;
+	}
+
+	private static int transform(final int square, final boolean mirrorX, final boolean mirrorY, final boolean diagonal) {
+		int x = square & 7, y = square >>> 3;
+		if (mirrorX) {
+			x = 7 - x;
+		}
+		if (mirrorY) {
+			y = 7 - y;
+		}
+		if (diagonal) {
+			final int oldX = x;
+			x = 7 - y;
+			y = 7 - oldX;
+		}
+		return x + 8 * y;
+	}
+
+	/**
+	 * set up the position from pieces of another position or a board, the pieces must
+	 * match this material
+	 * @param count number of pieces, entries with square -1 are skipped
+	 * @param pieceTypes type of each piece
+	 * @param pieceColors WHITE or BLACK of each piece
+	 * @param pieceSquares square of each piece
+	 * @param playerToMove WHITE or BLACK
+	 * @param flip swap colors and mirror ranks, for material stored the other way around
+	 */
+	void setPieces(final int count, final PieceType[] pieceTypes, final int[] pieceColors, final int[] pieceSquares, final int playerToMove, final boolean flip) {
+		Arrays.fill(occupancy, 0);
+		int used = 0;
+		for (int slot = 0; slot < pieceCount; slot++) {
+			for (int i = 0; i < count; i++) {
+				if ((used & 1 << i) != 0 || pieceSquares[i] < 0 || pieceTypes[i] != types[slot] || (flip ? 1 - pieceColors[i] : pieceColors[i]) != colors[slot]) {
+					continue;
+				}
+				final int square = flip ? pieceSquares[i] ^ 56 : pieceSquares[i];
+				squares[slot] = square;
+				occupancy[square] = slot + 1;
+				used |= 1 << i;
+				break;
+			}
+		}
+		sideToMove = flip ? 1 - playerToMove : playerToMove;
+	}
+
+	boolean isInCheck(final int color) {
+		return isAttacked(squares[color == WHITE ? WHITE_KING : BLACK_KING], 1 - color);
+	}
+
+	/**
+	 * @param square attacked square
+	 * @param byColor WHITE or BLACK
+	 * @return true if a piece of byColor attacks the square
+	 */
+	boolean isAttacked(final int square, final int byColor) {
+		for (int slot = 0; slot < pieceCount; slot++) {
+			if (colors[slot] == byColor && squares[slot] >= 0 && attacks(slot, square)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean attacks(final int slot, final int target) {
+		final int from = squares[slot];
+		final int dx = (target & 7) - (from & 7), dy = (target >>> 3) - (from >>> 3);
+		switch (types[slot]) {
+			case KING:
+				return Math.max(Math.abs(dx), Math.abs(dy)) == 1;
+			case KNIGHT:
+				return Math.abs(dx * dy) == 2;
+			case PAWN:
+				return Math.abs(dx) == 1 && dy == (colors[slot] == WHITE ? -1 : 1);
+			case BISHOP:
+				return Math.abs(dx) == Math.abs(dy) && dx != 0 && isPathClear(from, dx, dy);
+			case ROOK:
+				return (dx == 0) != (dy == 0) && isPathClear(from, dx, dy);
+			default:
+				return (Math.abs(dx) == Math.abs(dy) || dx == 0 || dy == 0) && (dx != 0 || dy != 0) && isPathClear(from, dx, dy);
+		}
+	}
+
+	private boolean isPathClear(final int from, final int dx, final int dy) {
+		final int steps = Math.max(Math.abs(dx), Math.abs(dy));
+		final int step = Integer.signum(dx) + 8 * Integer.signum(dy);
+		for (int i = 1, square = from + step; i < steps; i++, square += step) {
+			if (occupancy[square] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * generate pseudo legal moves of the side to move, promotions are to a queen only
+	 * like the engine; a move packs the piece slot, the destination, the captured
+	 * slot plus one and a promotion bit
+	 * @param moves buffer of at least MAX_MOVES entries
+	 * @return number of moves
+	 */
+	int generateMoves(final int[] moves) {
+		int count = 0;
+		for (int slot = 0; slot < pieceCount; slot++) {
+			if (colors[slot] != sideToMove) {
+				continue;
+			}
+			final int x = squares[slot] & 7, y = squares[slot] >>> 3;
+			switch (types[slot]) {
+				case KING:
+					for (int i = 0; i < 8; i++) {
+						count = addMove(moves, count, slot, x + KING_X[i], y + KING_Y[i]);
+					}
+					break;
+				case KNIGHT:
+					for (int i = 0; i < 8; i++) {
+						count = addMove(moves, count, slot, x + KNIGHT_X[i], y + KNIGHT_Y[i]);
+					}
+					break;
+				case PAWN:
+					count = addPawnMoves(moves, count, slot, x, y);
+					break;
+				default:
+					final int first = types[slot] == PieceType.BISHOP ? 4 : 0, last = types[slot] == PieceType.ROOK ? 4 : 8;
+					for (int i = first; i < last; i++) {
+						for (int toX = x + KING_X[i], toY = y + KING_Y[i]; isOnBoard(toX, toY); toX += KING_X[i], toY += KING_Y[i]) {
+							count = addMove(moves, count, slot, toX, toY);
+							if (occupancy[toX + 8 * toY] != 0) {
+								break;
+							}
+						}
+					}
+			}
+		}
+		return count;
+	}
+
+	private int addPawnMoves(final int[] moves, int count, final int slot, final int x, final int y) {
+		final int direction = colors[slot] == WHITE ? -1 : 1;
+		final int toY = y + direction;
+		final int promotion = toY == 0 || toY == 7 ? 1 << 12 : 0;
+		if (occupancy[x + 8 * toY] == 0) {
+			moves[count++] = slot | (x + 8 * toY) << 3 | promotion;
+			final int startY = colors[slot] == WHITE ? 6 : 1;
+			if (y == startY && occupancy[x + 8 * (toY + direction)] == 0) {
+				moves[count++] = slot | (x + 8 * (toY + direction)) << 3;
+			}
+		}
+		for (int dx = -1; dx <= 1; dx += 2) {
+			final int toX = x + dx;
+			if (toX < 0 || toX > 7) {
+				continue;
+			}
+			final int target = occupancy[toX + 8 * toY] - 1;
+			if (target >= 0 && colors[target] != colors[slot] && types[target] != PieceType.KING) {
+				moves[count++] = slot | (toX + 8 * toY) << 3 | (target + 1) << 9 | promotion;
+			}
+		}
+		return count;
+	}
+
+	private int addMove(final int[] moves, int count, final int slot, final int toX, final int toY) {
+		if (!isOnBoard(toX, toY)) {
+			return count;
+		}
+		final int target = occupancy[toX + 8 * toY] - 1;
+		if (target < 0) {
+			moves[count++] = slot | (toX + 8 * toY) << 3;
+		} else if (colors[target] != colors[slot] && types[target] != PieceType.KING) {
+			moves[count++] = slot | (toX + 8 * toY) << 3 | (target + 1) << 9;
+		}
+		return count;
+	}
+
+	private static boolean isOnBoard(final int x, final int y) {
+		return x >= 0 && x < 8 && y >= 0 && y < 8;
+	}
+
+	static int movedSlot(final int move) {
+		return move & 7;
+	}
+
+	/**
+	 * @return slot of the captured piece, -1 if the move is no capture
+	 */
+	static int capturedSlot(final int move) {
+		return (move >>> 9 & 7) - 1;
+	}
+
+	static boolean isPromotion(final int move) {
+		return (move & 1 << 12) != 0;
+	}
+
+	/**
+	 * play a move, a captured piece gets square -1; the move is played even if it
+	 * is illegal and must always be taken back with unmakeMove
+	 * @param move move from generateMoves
+	 * @return true if the mover's king is not left in check
+	 */
+	boolean makeMove(final int move) {
+		final int slot = movedSlot(move);
+		undoFrom = squares[slot];
+		undoTo = move >>> 3 & 63;
+		undoCaptured = capturedSlot(move);
+		if (undoCaptured >= 0) {
+			squares[undoCaptured] = -1;
+		}
+		occupancy[undoFrom] = 0;
+		occupancy[undoTo] = slot + 1;
+		squares[slot] = undoTo;
+		sideToMove = 1 - sideToMove;
+		return !isInCheck(1 - sideToMove);
+	}
+
+	void unmakeMove(final int move) {
+		final int slot = movedSlot(move);
+		squares[slot] = undoFrom;
+		occupancy[undoFrom] = slot + 1;
+		occupancy[undoTo] = 0;
+		if (undoCaptured >= 0) {
+			squares[undoCaptured] = undoTo;
+			occupancy[undoTo] = undoCaptured + 1;
+		}
+		sideToMove = 1 - sideToMove;
+	}
+}
@@ -0,0 +1,102 @@
+package chess.engine.tuning;
+
+import chess.engine.board.Board;
+import chess.engine.piece.Piece;
+import chess.engine.piece.Piece.PieceType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * fixed size record of a labeled position: 64 squares in 4 bits each, zobrist hash,
+ * search score, ply, game result and side to move
+ */
+public final class PackedPosition {
+	public static final int RECORD_SIZE = 46;
+	public static final int BLACK_WIN = 0, DRAW = 1, WHITE_WIN = 2;
+	public static final int EMPTY = 0;
+	private static final int BLACK_BIT = 8;
+	private static final int HASH_OFFSET = 32, SCORE_OFFSET = 40, PLY_OFFSET = 42, RESULT_OFFSET = 44, FLAGS_OFFSET = 45;
+	private static final int WHITE_TO_MOVE = 1;
+	private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+	private PackedPosition() {
+		throw new RuntimeException("You cannot instantiate me");
+	}
+
+	/**
+	 * append the record of a board at the position of the buffer
+	 * @param board board to pack
+	 * @param score search score from white point of view
+	 * @param ply plies played since the start of the game
+	 * @param result BLACK_WIN, DRAW or WHITE_WIN
+	 * @param buffer output, at least RECORD_SIZE bytes remaining
+	 */
+	public static void pack(final Board board, final int score, final int ply, final int result, final ByteBuffer buffer) {
+		final byte[] squares = new byte[32];
+		for (final Piece piece : board.getWhitePiece()) {
+			setCode(squares, piece);
+		}
+		for (final Piece piece : board.getBlackPiece()) {
+			setCode(squares, piece);
+		}
+		buffer.put(squares);
+		buffer.putLong(board.getZobristHash());
+		buffer.putShort((short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, score)));
+		buffer.putShort((short) Math.min(ply, Short.MAX_VALUE));
+		buffer.put((byte) result);
+		buffer.put((byte) (board.getCurrentPlayer().getAlliance().isWhite() ? WHITE_TO_MOVE : 0));
+	}
+
+	private static void setCode(final byte[] squares, final Piece piece) {
+		final int square = piece.getPiecePositionX() + 8 * piece.getPiecePositionY();
+		final int code = (piece.getPieceAlliance().isWhite() ? 0 : BLACK_BIT) | piece.getPieceType().ordinal() + 1;
+		squares[square >> 1] |= (square & 1) == 0 ? code : code << 4;
+	}
+
+	/**
+	 * get piece code of a square
+	 * @param buffer records
+	 * @param offset offset of the record
+	 * @param square x + 8 * y, y = 0 is rank 8
+	 * @return EMPTY or a code for pieceType and isWhite
+	 */
+	public static int getCode(final ByteBuffer buffer, final int offset, final int square) {
+		final int bits = buffer.get(offset + (square >> 1));
+		return (square & 1) == 0 ? bits & 15 : bits >> 4 & 15;
+	}
+
+	public static PieceType pieceType(final int code) {
+		return PIECE_TYPES[(code & 7) - 1];
+	}
+
+	public static boolean isWhite(final int code) {
+		return (code & BLACK_BIT) == 0;
+	}
+
+	public static long getHash(final ByteBuffer buffer, final int offset) {
+		return buffer.getLong(offset + HASH_OFFSET);
+	}
+
+	public static int getScore(final ByteBuffer buffer, final int offset) {
+		return buffer.getShort(offset + SCORE_OFFSET);
+	}
+
+	public static int getPly(final ByteBuffer buffer, final int offset) {
+		return buffer.getShort(offset + PLY_OFFSET);
+	}
+
+	public static int getResult(final ByteBuffer buffer, final int offset) {
+		return buffer.get(offset + RESULT_OFFSET);
+	}
+
+	/**
+	 * set game result of a record written before the game ended
+	 */
+	public static void setResult(final ByteBuffer buffer, final int offset, final int result) {
+		buffer.put(offset + RESULT_OFFSET, (byte) result);
+	}
+
+	public static boolean isWhiteToMove(final ByteBuffer buffer, final int offset) {
+		return (buffer.get(offset + FLAGS_OFFSET) & WHITE_TO_MOVE) != 0;
+	}
+}
@@ -0,0 +1,45 @@
+package chess.engine.tuning;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * lock free set of zobrist hashes, open addressing with linear probing; once a probe
+ * sequence is full the hash is treated as new, so a full filter lets duplicates through
+ * instead of blocking
+ */
+final class PositionFilter {
+	private static final int MAX_PROBES = 16;
+
+	private final int indexMask;
+	private final AtomicLongArray hashes;
+
+	PositionFilter(final int sizeBits) {
+		this.indexMask = (1 << sizeBits) - 1;
+		this.hashes = new AtomicLongArray(1 << sizeBits);
+	}
+
+	/**
+	 * insert a hash
+	 * @param hash zobrist hash
+	 * @return true if the hash was not in the set
+	 */
+	boolean add(final long hash) {
+		final long key = hash == 0 ? 1 : hash;
+		for (int probe = 0; probe < MAX_PROBES; probe++) {
+			final int slot = (int) (key + probe) & indexMask;
+			final long current = hashes.get(slot);
+			if (current == key) {
+				return false;
+			}
+			if (current == 0) {
+				if (hashes.compareAndSet(slot, 0, key)) {
+					return true;
+				}
+				if (hashes.get(slot) == key) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,208 @@
+package chess.engine.tuning;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.board.PositionHistory;
+import chess.engine.player.MoveTransition;
+import chess.engine.player.ai.AlphaBeta;
+import chess.engine.player.ai.StandardBoardEvaluator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * play games between two fixed depth searches from random openings on all threads and
+ * append the quiet positions of every finished game as PackedPosition records; positions
+ * already in the file or written by another game are skipped
+ */
+public final class SelfPlayGenerator {
+	private static final int MAX_PLIES = 400;
+	private static final int DECISIVE_SCORE = 10000;
+	private static final int ADJUDICATION_SCORE = 1500;
+	private static final int ADJUDICATION_PLIES = 8;
+
+	private final int threadCount, searchDepth, randomPlies;
+	private final PositionFilter filter;
+	private final AtomicLong positions, games;
+
+	/**
+	 * @param threadCount number of games played at the same time
+	 * @param searchDepth depth of the search choosing every move
+	 * @param randomPlies plies of random moves opening every game
+	 * @param filterSizeBits deduplication set holds 2 ^ filterSizeBits hashes
+	 */
+	public SelfPlayGenerator(final int threadCount, final int searchDepth, final int randomPlies, final int filterSizeBits) {
+		this.threadCount = Math.max(1, threadCount);
+		this.searchDepth = searchDepth;
+		this.randomPlies = randomPlies;
+		this.filter = new PositionFilter(filterSizeBits);
+		this.positions = new AtomicLong();
+		this.games = new AtomicLong();
+	}
+
+	public SelfPlayGenerator() {
+		this(Runtime.getRuntime().availableProcessors(), 4, 8, 24);
+	}
+
+	/**
+	 * get number of records written
+	 * @return positions
+	 */
+	public long getPositions() {
+		return positions.get();
+	}
+
+	public long getGames() {
+		return games.get();
+	}
+
+	/**
+	 * play games and append their positions
+	 * @param output record file, created if missing
+	 * @param gameCount number of games
+	 * @param seed seed of the random openings, game i uses seed + i
+	 * @throws IOException if the file cannot be read or written
+	 */
+	public void generate(final Path output, final int gameCount, final long seed) throws IOException {
+		if (Files.exists(output)) {
+			addExistingPositions(output);
+		}
+		try (final FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			final AtomicInteger nextGame = new AtomicInteger();
+			final IOException[] failure = new IOException[1];
+			final Thread[] workers = new Thread[threadCount];
+			for (int i = 0; i < threadCount; i++) {
+				workers[i] = new Thread(() -> {
+					final AlphaBeta search = new AlphaBeta(new StandardBoardEvaluator(), searchDepth);
+					final ByteBuffer records = ByteBuffer.allocate(MAX_PLIES * PackedPosition.RECORD_SIZE);
+					int game;
+					while ((game = nextGame.getAndIncrement()) < gameCount) {
+						records.clear();
+						playGame(search, new Random(seed + game), records);
+						records.flip();
+						try {
+							synchronized (channel) {
+								while (records.hasRemaining()) {
+									channel.write(records);
+								}
+							}
+						} catch (IOException exception) {
+							failure[0] = exception;
+							return;
+						}
+						games.incrementAndGet();
+					}
+				}, "selfplay-" + i);
+				workers[i].start();
+			}
+			for (final Thread worker : workers) {
+				try {
+					worker.join();
+				} catch (InterruptedException exception) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			if (failure[0] != null) {
+				throw failure[0];
+			}
+		}
+	}
+
+	private void addExistingPositions(final Path output) throws IOException {
+		try (final FileChannel channel = FileChannel.open(output, StandardOpenOption.READ)) {
+			final long existingSize = channel.size() - channel.size() % PackedPosition.RECORD_SIZE;
+			if (existingSize > 0) {
+				final ByteBuffer existing = channel.map(FileChannel.MapMode.READ_ONLY, 0, existingSize);
+				for (int offset = 0; offset < existingSize; offset += PackedPosition.RECORD_SIZE) {
+					filter.add(PackedPosition.getHash(existing, offset));
+				}
+			}
+		}
+	}
+
+	/**
+	 * play one game, leaving the records of its new quiet positions in the buffer
+	 * labeled with the result
+	 */
+	private void playGame(final AlphaBeta search, final Random random, final ByteBuffer records) {
+		Board board = Board.createStandardBoard();
+		for (int ply = 0; ply < randomPlies && board != null; ply++) {
+			board = randomMove(board, random);
+		}
+		if (board == null || board.getCurrentPlayer().getLegalMoves().isEmpty()) {
+			return;
+		}
+		final PositionHistory history = PositionHistory.of(board);
+		int result = PackedPosition.DRAW, decisivePlies = 0, lastDecisiveSign = 0;
+		for (int ply = randomPlies; ply < MAX_PLIES; ply++) {
+			if (board.getCurrentPlayer().isInCheckmate()) {
+				result = board.getCurrentPlayer().getAlliance().isWhite() ? PackedPosition.BLACK_WIN : PackedPosition.WHITE_WIN;
+				break;
+			}
+			if (board.getCurrentPlayer().isInStaleMate() || board.isFiftyMoveDraw() || board.isInsufficientMaterial() || history.repetitionCount(board.getHalfMoveClock()) >= 3) {
+				break;
+			}
+			final Move move = search.execute(board);
+			if (move == null) {
+				break;
+			}
+			final int score = board.getCurrentPlayer().getAlliance().isWhite() ? search.getBestScore() : -search.getBestScore();
+			if (!board.getCurrentPlayer().isInCheck() && !move.isAttack() && Math.abs(score) < DECISIVE_SCORE && records.remaining() >= PackedPosition.RECORD_SIZE && filter.add(board.getZobristHash())) {
+				PackedPosition.pack(board, score, ply, PackedPosition.DRAW, records);
+				positions.incrementAndGet();
+			}
+			final int sign = score >= ADJUDICATION_SCORE ? 1 : score <= -ADJUDICATION_SCORE ? -1 : 0;
+			decisivePlies = sign != 0 && sign == lastDecisiveSign ? decisivePlies + 1 : sign != 0 ? 1 : 0;
+			lastDecisiveSign = sign;
+			if (decisivePlies >= ADJUDICATION_PLIES) {
+				result = sign > 0 ? PackedPosition.WHITE_WIN : PackedPosition.BLACK_WIN;
+				break;
+			}
+			final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+			if (!transition.getMoveStatus().isDone()) {
+				break;
+			}
+			board = transition.getToBoard();
+			history.push(board.getZobristHash());
+		}
+		for (int offset = 0; offset < records.position(); offset += PackedPosition.RECORD_SIZE) {
+			PackedPosition.setResult(records, offset, result);
+		}
+	}
+
+	private static Board randomMove(final Board board, final Random random) {
+		final List<Move> moves = new ArrayList<>(board.getCurrentPlayer().getLegalMoves());
+		while (!moves.isEmpty()) {
+			final Move move = moves.remove(random.nextInt(moves.size()));
+			final MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+			if (transition.getMoveStatus().isDone()) {
+				return transition.getToBoard();
+			}
+		}
+		return null;
+	}
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length < 2) {
+			System.out.println("usage: SelfPlayGenerator <output> <games> [depth] [threads]");
+			return;
+		}
+		final int depth = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+		final int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+		final SelfPlayGenerator generator = new SelfPlayGenerator(threads, depth, 8, 24);
+		final long startTime = System.nanoTime();
+		generator.generate(Paths.get(args[0]), Integer.parseInt(args[1]), System.nanoTime());
+		final double seconds = (System.nanoTime() - startTime) / 1e9;
+		System.out.printf("%d games, %d positions, %.0f positions/s, %.1f positions/s per thread%n", generator.getGames(), generator.getPositions(), generator.getPositions() / seconds, generator.getPositions() / seconds / threads);
+	}
+}
@@ -0,0 +1,390 @@
+package chess.engine.tuning;
+
+import chess.engine.piece.Piece.PieceType;
+import chess.engine.piece.PieceSquareTable;
+import chess.engine.player.ai.PawnHashTable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * tune the material values and piece square tables of PieceSquareTable by minimizing
+ * the squared difference between game results and the win probability of the tapered
+ * evaluation; the positions are split in chunks that all threads take from, every
+ * thread sums its own error and gradient, and parameters are updated with adam
+ *
+ * a piece type sharing one table between the phases tunes a single table, the
+ * endgame parameters of its squares are unused; the pawn structure and pawn shield
+ * terms of PawnHashTable are computed once per position and added as fixed inputs
+ */
+public final class TexelTuner {
+	private static final int CHECKPOINT_MAGIC = 0x434A5454;
+	private static final int TYPE_COUNT = 6;
+	private static final int PHASE_TERMS = TYPE_COUNT + TYPE_COUNT * 64;
+	private static final int PARAMETER_COUNT = 2 * PHASE_TERMS;
+	private static final int WHITE_PIECE = 1 << 9;
+	private static final int CHUNK_SIZE = 16384;
+	private static final int CHECKPOINT_INTERVAL = 50;
+	private static final double BETA1 = 0.9, BETA2 = 0.999, EPSILON = 1e-8;
+	private static final PieceType[] PIECE_TYPES = PieceType.values();
+	private static final boolean[] HAS_ENDGAME_TABLE = new boolean[TYPE_COUNT];
+
+	static {
+		for (final PieceType type : PIECE_TYPES) {
+			HAS_ENDGAME_TABLE[type.ordinal()] = PieceSquareTable.hasEndgameTable(type);
+		}
+	}
+
+	private final int threadCount;
+	private short[] pieces;
+	private int[] pieceOffsets;
+	private byte[] phases, results;
+	private short[] pawnMidgameScores, pawnEndgameScores;
+	private int positionCount, pieceCount;
+	private final double[] parameters, firstMoments, secondMoments;
+	private double scalingConstant;
+	private int iteration;
+
+	public TexelTuner(final int threadCount) {
+		this.threadCount = Math.max(1, threadCount);
+		this.pieces = new short[1 << 16];
+		this.pieceOffsets = new int[1 << 12];
+		this.phases = new byte[1 << 12];
+		this.results = new byte[1 << 12];
+		this.pawnMidgameScores = new short[1 << 12];
+		this.pawnEndgameScores = new short[1 << 12];
+		this.parameters = new double[PARAMETER_COUNT];
+		this.firstMoments = new double[PARAMETER_COUNT];
+		this.secondMoments = new double[PARAMETER_COUNT];
+		this.scalingConstant = 1.0;
+		for (final PieceType type : PIECE_TYPES) {
+			parameters[type.ordinal()] = PieceSquareTable.midgameValue(type);
+			parameters[PHASE_TERMS + type.ordinal()] = PieceSquareTable.endgameValue(type);
+			for (int square = 0; square < 64; square++) {
+				parameters[tableParameter(type.ordinal(), square)] = PieceSquareTable.midgameBonus(type, square);
+				parameters[endgameTableParameter(type.ordinal(), square)] = PieceSquareTable.endgameBonus(type, square);
+			}
+		}
+	}
+
+	public TexelTuner() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * add all records of a file written with PackedPosition, each piece is kept as
+	 * one short of color, type and table square
+	 * @param file position file
+	 * @throws IOException if the file cannot be read
+	 */
+	public void load(final Path file) throws IOException {
+		try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			for (int offset = 0; offset + PackedPosition.RECORD_SIZE <= buffer.limit(); offset += PackedPosition.RECORD_SIZE) {
+				if (positionCount + 1 >= pieceOffsets.length) {
+					pieceOffsets = Arrays.copyOf(pieceOffsets, 2 * pieceOffsets.length);
+					phases = Arrays.copyOf(phases, pieceOffsets.length);
+					results = Arrays.copyOf(results, pieceOffsets.length);
+					pawnMidgameScores = Arrays.copyOf(pawnMidgameScores, pieceOffsets.length);
+					pawnEndgameScores = Arrays.copyOf(pawnEndgameScores, pieceOffsets.length);
+				}
+				if (pieceCount + 64 > pieces.length) {
+					pieces = Arrays.copyOf(pieces, 2 * pieces.length);
+				}
+				int phase = 0, whiteKingSquare = 0, blackKingSquare = 0;
+				long whitePawns = 0, blackPawns = 0;
+				for (int square = 0; square < 64; square++) {
+					final int code = PackedPosition.getCode(buffer, offset, square);
+					if (code == PackedPosition.EMPTY) {
+						continue;
+					}
+					final PieceType type = PackedPosition.pieceType(code);
+					final boolean white = PackedPosition.isWhite(code);
+					final int tableSquare = white ? square : square ^ 56;
+					pieces[pieceCount++] = (short) ((white ? WHITE_PIECE : 0) | type.ordinal() << 6 | tableSquare);
+					phase += PieceSquareTable.phase(type);
+					if (type == PieceType.PAWN) {
+						if (white) {
+							whitePawns |= 1L << square;
+						} else {
+							blackPawns |= 1L << square;
+						}
+					} else if (type.isKing()) {
+						if (white) {
+							whiteKingSquare = square;
+						} else {
+							blackKingSquare = square;
+						}
+					}
+				}
+				pawnMidgameScores[positionCount] = (short) PawnHashTable.midgameScore(whitePawns, blackPawns, whiteKingSquare, blackKingSquare);
+				pawnEndgameScores[positionCount] = (short) PawnHashTable.endgameScore(whitePawns, blackPawns);
+				phases[positionCount] = (byte) Math.min(phase, PieceSquareTable.MAX_PHASE);
+				results[positionCount] = (byte) PackedPosition.getResult(buffer, offset);
+				pieceOffsets[++positionCount] = pieceCount;
+			}
+		}
+	}
+
+	public int getPositionCount() {
+		return positionCount;
+	}
+
+	public int getIteration() {
+		return iteration;
+	}
+
+	public double getScalingConstant() {
+		return scalingConstant;
+	}
+
+	/**
+	 * mean squared error of the current parameters
+	 * @return error
+	 */
+	public double computeError() {
+		return pass(null);
+	}
+
+	/**
+	 * choose the constant of the win probability curve that best fits the current
+	 * parameters, by golden section search
+	 * @return scaling constant
+	 */
+	public double fitScalingConstant() {
+		final double ratio = (Math.sqrt(5) - 1) / 2;
+		double low = 0.1, high = 4.0;
+		for (int step = 0; step < 30; step++) {
+			final double left = high - ratio * (high - low), right = low + ratio * (high - low);
+			scalingConstant = left;
+			final double leftError = computeError();
+			scalingConstant = right;
+			final double rightError = computeError();
+			if (leftError < rightError) {
+				high = right;
+			} else {
+				low = left;
+			}
+		}
+		scalingConstant = (low + high) / 2;
+		return scalingConstant;
+	}
+
+	/**
+	 * run adam iterations, resuming from the checkpoint if it exists and saving it
+	 * every CHECKPOINT_INTERVAL iterations
+	 * @param iterations last iteration to run
+	 * @param learningRate step size in centipawns
+	 * @param checkpoint checkpoint file, null for none
+	 * @throws IOException if the checkpoint cannot be read or written
+	 */
+	public void tune(final int iterations, final double learningRate, final Path checkpoint) throws IOException {
+		if (checkpoint != null && Files.exists(checkpoint)) {
+			readCheckpoint(checkpoint);
+		} else {
+			fitScalingConstant();
+		}
+		final double[] gradient = new double[PARAMETER_COUNT];
+		while (iteration < iterations) {
+			Arrays.fill(gradient, 0);
+			final double error = pass(gradient);
+			iteration++;
+			final double firstCorrection = 1 - Math.pow(BETA1, iteration), secondCorrection = 1 - Math.pow(BETA2, iteration);
+			for (int i = 0; i < PARAMETER_COUNT; i++) {
+				firstMoments[i] = BETA1 * firstMoments[i] + (1 - BETA1) * gradient[i];
+				secondMoments[i] = BETA2 * secondMoments[i] + (1 - BETA2) * gradient[i] * gradient[i];
+				parameters[i] -= learningRate * (firstMoments[i] / firstCorrection) / (Math.sqrt(secondMoments[i] / secondCorrection) + EPSILON);
+			}
+			if (iteration % CHECKPOINT_INTERVAL == 0 || iteration == iterations) {
+				System.out.println("iteration " + iteration + " error " + error);
+				if (checkpoint != null) {
+					writeCheckpoint(checkpoint);
+				}
+			}
+		}
+	}
+
+	/**
+	 * one parallel pass over all positions
+	 * @param gradient receives the gradient of the error, null to skip it
+	 * @return mean squared error
+	 */
+	private double pass(final double[] gradient) {
+		final AtomicInteger nextChunk = new AtomicInteger();
+		final double[] errors = new double[threadCount];
+		final double[][] gradients = new double[threadCount][];
+		final Thread[] workers = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			final int worker = i;
+			workers[i] = new Thread(() -> {
+				final double[] localGradient = gradient == null ? null : new double[PARAMETER_COUNT];
+				double error = 0;
+				int chunk;
+				while ((chunk = nextChunk.getAndIncrement()) * CHUNK_SIZE < positionCount) {
+					final int end = Math.min(positionCount, (chunk + 1) * CHUNK_SIZE);
+					for (int position = chunk * CHUNK_SIZE; position < end; position++) {
+						error += positionError(position, localGradient);
+					}
+				}
+				errors[worker] = error;
+				gradients[worker] = localGradient;
+			}, "tuner-" + i);
+			workers[i].start();
+		}
+		for (final Thread worker : workers) {
+			try {
+				worker.join();
+			} catch (InterruptedException exception) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		double error = 0;
+		for (int i = 0; i < threadCount; i++) {
+			error += errors[i];
+			if (gradient != null) {
+				for (int j = 0; j < PARAMETER_COUNT; j++) {
+					gradient[j] += gradients[i][j] / Math.max(1, positionCount);
+				}
+			}
+		}
+		return error / Math.max(1, positionCount);
+	}
+
+	/**
+	 * squared error of one position, adding its gradient if asked
+	 */
+	private double positionError(final int position, final double[] gradient) {
+		final double midgameWeight = phases[position] / (double) PieceSquareTable.MAX_PHASE;
+		double midgame = pawnMidgameScores[position], endgame = pawnEndgameScores[position];
+		for (int i = pieceOffsets[position]; i < pieceOffsets[position + 1]; i++) {
+			final int piece = pieces[i];
+			final int sign = (piece & WHITE_PIECE) != 0 ? 1 : -1, type = piece >> 6 & 7;
+			midgame += sign * (parameters[type] + parameters[tableParameter(type, piece & 63)]);
+			endgame += sign * (parameters[PHASE_TERMS + type] + parameters[endgameTableParameter(type, piece & 63)]);
+		}
+		final double score = midgame * midgameWeight + endgame * (1 - midgameWeight);
+		final double probability = 1 / (1 + Math.pow(10, -scalingConstant * score / 400));
+		final double difference = results[position] / 2.0 - probability;
+		if (gradient != null) {
+			final double slope = -2 * difference * probability * (1 - probability) * Math.log(10) * scalingConstant / 400;
+			for (int i = pieceOffsets[position]; i < pieceOffsets[position + 1]; i++) {
+				final int piece = pieces[i];
+				final double signedSlope = (piece & WHITE_PIECE) != 0 ? slope : -slope;
+				final int type = piece >> 6 & 7;
+				gradient[type] += signedSlope * midgameWeight;
+				gradient[tableParameter(type, piece & 63)] += signedSlope * midgameWeight;
+				gradient[PHASE_TERMS + type] += signedSlope * (1 - midgameWeight);
+				gradient[endgameTableParameter(type, piece & 63)] += signedSlope * (1 - midgameWeight);
+			}
+		}
+		return difference * difference;
+	}
+
+	private static int tableParameter(final int type, final int square) {
+		return TYPE_COUNT + type * 64 + square;
+	}
+
+	/**
+	 * the midgame parameter for a type with one table in both phases
+	 */
+	private static int endgameTableParameter(final int type, final int square) {
+		return HAS_ENDGAME_TABLE[type] ? PHASE_TERMS + tableParameter(type, square) : tableParameter(type, square);
+	}
+
+	private void writeCheckpoint(final Path checkpoint) throws IOException {
+		final Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+		try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+			output.writeInt(CHECKPOINT_MAGIC);
+			output.writeInt(PARAMETER_COUNT);
+			output.writeInt(iteration);
+			output.writeDouble(scalingConstant);
+			for (int i = 0; i < PARAMETER_COUNT; i++) {
+				output.writeDouble(parameters[i]);
+				output.writeDouble(firstMoments[i]);
+				output.writeDouble(secondMoments[i]);
+			}
+		}
+		Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void readCheckpoint(final Path checkpoint) throws IOException {
+		try (final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpoint)))) {
+			if (input.readInt() != CHECKPOINT_MAGIC || input.readInt() != PARAMETER_COUNT) {
+				throw new IOException("Not a tuner checkpoint: " + checkpoint);
+			}
+			iteration = input.readInt();
+			scalingConstant = input.readDouble();
+			for (int i = 0; i < PARAMETER_COUNT; i++) {
+				parameters[i] = input.readDouble();
+				firstMoments[i] = input.readDouble();
+				secondMoments[i] = input.readDouble();
+			}
+		}
+	}
+
+	/**
+	 * current parameters in the layout of PieceSquareTable
+	 * @return java source of the value arrays and tables
+	 */
+	public String toJava() {
+		final StringBuilder builder = new StringBuilder();
+		appendArray(builder, "MIDGAME_VALUE", 0);
+		appendArray(builder, "ENDGAME_VALUE", PHASE_TERMS);
+		for (final PieceType type : PIECE_TYPES) {
+			if (HAS_ENDGAME_TABLE[type.ordinal()]) {
+				appendTable(builder, type.name() + "_MIDGAME", tableParameter(type.ordinal(), 0));
+				appendTable(builder, type.name() + "_ENDGAME", endgameTableParameter(type.ordinal(), 0));
+			} else {
+				appendTable(builder, type.name(), tableParameter(type.ordinal(), 0));
+			}
+		}
+		return builder.toString();
+	}
+
+	private void appendArray(final StringBuilder builder, final String name, final int start) {
+		builder.append("private static final int[] ").append(name).append(" = {");
+		for (int i = 0; i < TYPE_COUNT; i++) {
+			builder.append(i == 0 ? "" : ", ").append(Math.round(parameters[start + i]));
+		}
+		builder.append("};\n");
+	}
+
+	private void appendTable(final StringBuilder builder, final String name, final int start) {
+		builder.append("private static final int[] ").append(name).append(" = {\n");
+		for (int y = 0; y < 8; y++) {
+			builder.append('\t');
+			for (int x = 0; x < 8; x++) {
+				builder.append(Math.round(parameters[start + x + 8 * y])).append(x < 7 ? ", " : y < 7 ? "," : "");
+			}
+			builder.append('\n');
+		}
+		builder.append("};\n");
+	}
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length < 3) {
+			System.out.println("usage: TexelTuner <checkpoint> <iterations> <positions>...");
+			return;
+		}
+		final TexelTuner tuner = new TexelTuner();
+		for (int i = 2; i < args.length; i++) {
+			tuner.load(Paths.get(args[i]));
+		}
+		System.out.println(tuner.getPositionCount() + " positions");
+		tuner.tune(Integer.parseInt(args[1]), 1.0, Paths.get(args[0]));
+		System.out.println("scaling constant " + tuner.getScalingConstant());
+		System.out.print(tuner.toJava());
+	}
+}
@@ -0,0 +1,169 @@
+package chess.fuzz;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * play random games on a reference and a candidate implementation side by side,
+ * comparing legal moves, status and position after every ply; a failing game is
+ * shrunk by dropping moves as long as what is left still fails, moves made illegal
+ * by an earlier drop are skipped on replay
+ * @param <R> position type of the reference
+ * @param <C> position type of the candidate
+ */
+public final class DifferentialFuzzer<R, C> {
+	private final RulesEngine<R> reference;
+	private final RulesEngine<C> candidate;
+
+	public DifferentialFuzzer(final RulesEngine<R> reference, final RulesEngine<C> candidate) {
+		this.reference = reference;
+		this.candidate = candidate;
+	}
+
+	/**
+	 * play random games
+	 * @param seed random seed, game i uses seed + i
+	 * @param games number of games
+	 * @param maxPlies plies per game
+	 * @return first mismatch, already shrunk, or null if none was found
+	 */
+	public Mismatch fuzz(final long seed, final int games, final int maxPlies) {
+		for (int game = 0; game < games; game++) {
+			final Random random = new Random(seed + game);
+			final List<String> moves = new ArrayList<>();
+			R referencePosition = reference.startPosition();
+			for (int ply = 0; ply < maxPlies; ply++) {
+				final List<String> legalMoves = new ArrayList<>(new TreeSet<>(reference.legalMoves(referencePosition)));
+				if (legalMoves.isEmpty()) {
+					break;
+				}
+				final String move = legalMoves.get(random.nextInt(legalMoves.size()));
+				moves.add(move);
+				referencePosition = reference.play(referencePosition, move);
+			}
+			final Mismatch mismatch = check(moves);
+			if (mismatch != null) {
+				return check(shrink(moves.subList(0, mismatch.getPly())));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * replay a game on both implementations, moves that are not legal for the reference
+	 * in the position reached are skipped
+	 * @param moves game
+	 * @return first difference with the moves actually played, null if none
+	 */
+	public Mismatch check(final List<String> moves) {
+		final List<String> played = new ArrayList<>();
+		R referencePosition = reference.startPosition();
+		C candidatePosition = candidate.startPosition();
+		int next = 0;
+		while (true) {
+			final String referenceKey = reference.positionKey(referencePosition), candidateKey = candidate.positionKey(candidatePosition);
+			if (!referenceKey.equals(candidateKey)) {
+				return new Mismatch(played, "position", referenceKey, candidateKey);
+			}
+			final RulesEngine.Status referenceStatus = reference.status(referencePosition), candidateStatus = candidate.status(candidatePosition);
+			if (referenceStatus != candidateStatus) {
+				return new Mismatch(played, "status", referenceStatus.toString(), candidateStatus.toString());
+			}
+			final TreeSet<String> referenceMoves = new TreeSet<>(reference.legalMoves(referencePosition)), candidateMoves = new TreeSet<>(candidate.legalMoves(candidatePosition));
+			if (!referenceMoves.equals(candidateMoves)) {
+				return new Mismatch(played, "legal moves", difference(referenceMoves, candidateMoves), difference(candidateMoves, referenceMoves));
+			}
+			while (next < moves.size() && !referenceMoves.contains(moves.get(next))) {
+				next++;
+			}
+			if (next == moves.size()) {
+				return null;
+			}
+			final String move = moves.get(next++);
+			played.add(move);
+			referencePosition = reference.play(referencePosition, move);
+			candidatePosition = candidate.play(candidatePosition, move);
+		}
+	}
+
+	/**
+	 * drop chunks of moves, halving the chunk size whenever no chunk can go
+	 * @param moves failing game
+	 * @return shorter game that still fails
+	 */
+	public List<String> shrink(final List<String> moves) {
+		List<String> failing = new ArrayList<>(moves);
+		for (int chunkSize = Math.max(1, failing.size() / 2); chunkSize > 0; ) {
+			boolean removed = false;
+			for (int start = 0; start + chunkSize <= failing.size(); ) {
+				final List<String> shorter = new ArrayList<>(failing.subList(0, start));
+				shorter.addAll(failing.subList(start + chunkSize, failing.size()));
+				final Mismatch mismatch = check(shorter);
+				if (mismatch != null && mismatch.getPly() < failing.size()) {
+					failing = new ArrayList<>(mismatch.getMoves());
+					removed = true;
+				} else {
+					start++;
+				}
+			}
+			if (!removed) {
+				chunkSize /= 2;
+			}
+		}
+		return failing;
+	}
+
+	private static String difference(final TreeSet<String> moves, final TreeSet<String> otherMoves) {
+		final TreeSet<String> difference = new TreeSet<>(moves);
+		difference.removeAll(otherMoves);
+		return difference.toString();
+	}
+
+	public static final class Mismatch {
+		private final List<String> moves;
+		private final String kind, referenceValue, candidateValue;
+
+		private Mismatch(final List<String> moves, final String kind, final String referenceValue, final String candidateValue) {
+			this.moves = ImmutableList.copyOf(moves);
+			this.kind = kind;
+			this.referenceValue = referenceValue;
+			this.candidateValue = candidateValue;
+		}
+
+		/**
+		 * get moves leading to the position that differs
+		 * @return moves from the start position
+		 */
+		public List<String> getMoves() {
+			return moves;
+		}
+
+		public int getPly() {
+			return moves.size();
+		}
+
+		public String getKind() {
+			return kind;
+		}
+
+		@Override
+		public String toString() {
+			return kind + " differ after " + (moves.isEmpty() ? "start" : String.join(" ", moves)) + "\n  reference: " + referenceValue + "\n  candidate: " + candidateValue;
+		}
+	}
+
+	public static void main(final String[] args) {
+		final int games = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		final long seed = args.length > 1 ? Long.parseLong(args[1]) : 0;
+		final DifferentialFuzzer<?, ?> fuzzer = new DifferentialFuzzer<>(new ReferenceEngine(), new ScratchBoardEngine());
+		final Mismatch mismatch = fuzzer.fuzz(seed, games, 200);
+		System.out.println(mismatch == null ? games + " games without difference" : mismatch.toString());
+		if (mismatch != null) {
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package chess.fuzz;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.board.Move.PawnPromotion;
+import chess.engine.board.Tile;
+import chess.engine.piece.Pawn;
+import chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the object engine of chess.engine
+ */
+public class ReferenceEngine implements RulesEngine<Board> {
+	@Override
+	public String getName() {
+		return "reference";
+	}
+
+	@Override
+	public Board startPosition() {
+		return Board.createStandardBoard();
+	}
+
+	@Override
+	public List<String> legalMoves(final Board board) {
+		final List<String> moves = new ArrayList<>();
+		for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
+			if (board.getCurrentPlayer().makeMove(move).getMoveStatus().isDone()) {
+				moves.add(moveName(move));
+			}
+		}
+		return moves;
+	}
+
+	@Override
+	public Board play(final Board board, final String move) {
+		for (final Move legalMove : board.getCurrentPlayer().getLegalMoves()) {
+			if (moveName(legalMove).equals(move)) {
+				final MoveTransition transition = board.getCurrentPlayer().makeMove(legalMove);
+				if (transition.getMoveStatus().isDone()) {
+					return transition.getToBoard();
+				}
+			}
+		}
+		throw new IllegalArgumentException("Illegal move " + move);
+	}
+
+	@Override
+	public Status status(final Board board) {
+		if (board.getCurrentPlayer().isInCheckmate()) {
+			return Status.CHECKMATE;
+		}
+		if (board.getCurrentPlayer().isInStaleMate()) {
+			return Status.STALEMATE;
+		}
+		return board.getCurrentPlayer().isInCheck() ? Status.CHECK : Status.ONGOING;
+	}
+
+	@Override
+	public String positionKey(final Board board) {
+		return positionKeyOf(board);
+	}
+
+	static String positionKeyOf(final Board board) {
+		final StringBuilder builder = new StringBuilder();
+		for (int y = 0; y < 8; y++) {
+			for (int x = 0; x < 8; x++) {
+				final Tile tile = board.getTile(x, y);
+				if (!tile.isTileOccupied()) {
+					builder.append('.');
+				} else {
+					final String name = tile.getPiece().getPieceType().toString();
+					builder.append(tile.getPiece().getPieceAlliance().isWhite() ? name : name.toLowerCase());
+				}
+			}
+			builder.append(y < 7 ? '/' : ' ');
+		}
+		builder.append(board.getCurrentPlayer().getAlliance().isWhite() ? 'w' : 'b');
+		final Pawn enPassantPawn = board.getEnPassantPawn();
+		builder.append(' ').append(enPassantPawn == null ? "-" : squareName(enPassantPawn.getPiecePositionX(), enPassantPawn.getPiecePositionY()));
+		return builder.append(' ').append(board.getHalfMoveClock()).toString();
+	}
+
+	static String moveName(final Move move) {
+		final String name = squareName(move.getCurrentPositionX(), move.getCurrentPositionY()) + squareName(move.getDestinationPositionX(), move.getDestinationPositionY());
+		return move instanceof PawnPromotion ? name + "q" : name;
+	}
+
+	static String squareName(final int x, final int y) {
+		return "" + (char) ('a' + x) + (8 - y);
+	}
+}
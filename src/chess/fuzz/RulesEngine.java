@@ -0,0 +1,40 @@
+package chess.fuzz;
+
+import java.util.List;
+
+/**
+ * the rules of chess as seen by the differential fuzzer, moves are written as source
+ * and destination square like e2e4, with a piece letter appended for promotions
+ * @param <P> position type of the implementation
+ */
+public interface RulesEngine<P> {
+	enum Status {
+		ONGOING, CHECK, CHECKMATE, STALEMATE
+	}
+
+	String getName();
+
+	P startPosition();
+
+	/**
+	 * @param position current position
+	 * @return legal moves in any order
+	 */
+	List<String> legalMoves(P position);
+
+	/**
+	 * @param position current position
+	 * @param move one of the legal moves
+	 * @return position after the move
+	 */
+	P play(P position, String move);
+
+	Status status(P position);
+
+	/**
+	 * placement, player to move, en passant square and half move clock
+	 * @param position current position
+	 * @return key equal for equal positions of any implementation
+	 */
+	String positionKey(P position);
+}
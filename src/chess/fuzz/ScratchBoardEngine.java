@@ -0,0 +1,85 @@
+package chess.fuzz;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.piece.Piece;
+import chess.engine.player.MoveTransition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * the object engine without its shortcuts: every position is rebuilt from its pieces,
+ * so nothing is derived from the parent board, and moves are generated piece by piece
+ * and checked by making them instead of coming from the player's cached lists or the
+ * check evasion generator
+ */
+public class ScratchBoardEngine extends ReferenceEngine {
+	@Override
+	public String getName() {
+		return "scratch";
+	}
+
+	@Override
+	public List<String> legalMoves(final Board board) {
+		final List<String> moves = new ArrayList<>();
+		for (final Move move : pseudoLegalMoves(board)) {
+			if (board.getCurrentPlayer().makeMove(move).getMoveStatus().isDone()) {
+				moves.add(moveName(move));
+			}
+		}
+		return moves;
+	}
+
+	@Override
+	public Board play(final Board board, final String move) {
+		for (final Move pseudoLegalMove : pseudoLegalMoves(board)) {
+			if (moveName(pseudoLegalMove).equals(move)) {
+				final MoveTransition transition = board.getCurrentPlayer().makeMove(pseudoLegalMove);
+				if (transition.getMoveStatus().isDone()) {
+					return rebuild(transition.getToBoard());
+				}
+			}
+		}
+		throw new IllegalArgumentException("Illegal move " + move);
+	}
+
+	@Override
+	public Status status(final Board board) {
+		final boolean inCheck = board.getCurrentPlayer().isInCheck();
+		if (legalMoves(board).isEmpty()) {
+			return inCheck ? Status.CHECKMATE : Status.STALEMATE;
+		}
+		return inCheck ? Status.CHECK : Status.ONGOING;
+	}
+
+	/**
+	 * moves of every piece, castling taken from the player since pieces do not generate it
+	 */
+	private static List<Move> pseudoLegalMoves(final Board board) {
+		final List<Move> moves = new ArrayList<>();
+		for (final Piece piece : board.getCurrentPlayer().getActivePieces()) {
+			moves.addAll(piece.calculateLegalMoves(board));
+		}
+		for (final Move move : board.getCurrentPlayer().getLegalMoves()) {
+			if (move.isCastlingMove()) {
+				moves.add(move);
+			}
+		}
+		return moves;
+	}
+
+	private static Board rebuild(final Board board) {
+		final Board.Builder builder = new Board.Builder();
+		for (final Piece piece : board.getWhitePiece()) {
+			builder.setPiece(piece);
+		}
+		for (final Piece piece : board.getBlackPiece()) {
+			builder.setPiece(piece);
+		}
+		builder.setNextMoveMaker(board.getCurrentPlayer().getAlliance());
+		builder.setEnPassantPawn(board.getEnPassantPawn());
+		builder.setHalfMoveClock(board.getHalfMoveClock());
+		return builder.build();
+	}
+}
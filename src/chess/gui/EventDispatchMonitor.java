@@ -0,0 +1,207 @@
+package chess.gui;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * event queue that times every event dispatched on the event dispatch thread; a
+ * watchdog thread prints the stack of the dispatch thread once an event runs past
+ * the threshold, and the latency percentiles are printed when the program exits
+ *
+ * only the innermost dispatch is timed: an event that runs a nested event loop, like
+ * the one of a modal dialog, waits for the user, so it is counted apart and the
+ * watchdog leaves it alone once the first nested event was dispatched
+ */
+public final class EventDispatchMonitor extends EventQueue {
+	/**
+	 * system property holding the slow event threshold in milliseconds, the monitor
+	 * is only installed if it is set
+	 */
+	public static final String THRESHOLD_PROPERTY = "chess.edt.monitor";
+	private static final int SUB_BUCKETS = 4;
+	private static final int BUCKET_COUNT = 40 * SUB_BUCKETS;
+	private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+	private final long thresholdNanos;
+	private final AtomicLongArray buckets;
+	private volatile Thread dispatchThread;
+	private volatile long dispatchStart, dispatchId;
+	private volatile AWTEvent dispatchEvent;
+	private volatile boolean dispatchNested;
+	private volatile long maxNanos, slowEvents, nestedEvents;
+	private long eventCounter;
+
+	/**
+	 * @param thresholdMillis events running longer than this are logged
+	 */
+	public EventDispatchMonitor(final long thresholdMillis) {
+		this.thresholdNanos = thresholdMillis * 1000000;
+		this.buckets = new AtomicLongArray(BUCKET_COUNT);
+	}
+
+	/**
+	 * install a monitor if the threshold property is set
+	 * @return installed monitor, null if monitoring is off
+	 */
+	public static EventDispatchMonitor installIfEnabled() {
+		final Long thresholdMillis = Long.getLong(THRESHOLD_PROPERTY);
+		if (thresholdMillis == null) {
+			return null;
+		}
+		final EventDispatchMonitor monitor = new EventDispatchMonitor(thresholdMillis);
+		monitor.install();
+		return monitor;
+	}
+
+	/**
+	 * replace the system event queue, start the watchdog and print the report at exit
+	 */
+	public void install() {
+		Toolkit.getDefaultToolkit().getSystemEventQueue().push(this);
+		final Thread watchdog = new Thread(this::watch, "edt-monitor");
+		watchdog.setDaemon(true);
+		watchdog.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(report()), "edt-monitor-report"));
+	}
+
+	@Override
+	protected void dispatchEvent(final AWTEvent event) {
+		final Thread previousThread = dispatchThread;
+		final AWTEvent previousEvent = dispatchEvent;
+		final long previousStart = dispatchStart, previousId = dispatchId;
+		final long startTime = System.nanoTime();
+		dispatchThread = Thread.currentThread();
+		dispatchEvent = event;
+		dispatchId = ++eventCounter;
+		dispatchStart = startTime;
+		dispatchNested = false;
+		try {
+			super.dispatchEvent(event);
+		} finally {
+			final long nanos = System.nanoTime() - startTime;
+			final boolean nested = dispatchNested;
+			dispatchThread = previousThread;
+			dispatchEvent = previousEvent;
+			dispatchStart = previousStart;
+			dispatchId = previousId;
+			dispatchNested = previousEvent != null;
+			if (nested) {
+				nestedEvents++;
+			} else {
+				record(nanos);
+				if (nanos > thresholdNanos) {
+					slowEvents++;
+					System.out.printf("edt: %s took %.1f ms%n", describe(event), nanos / 1e6);
+				}
+			}
+		}
+	}
+
+	/**
+	 * check the running event a few times per threshold and print the stack of the
+	 * dispatch thread once per slow event, while it is still stuck
+	 */
+	private void watch() {
+		final long period = Math.max(1, thresholdNanos / 4000000);
+		long reportedId = 0;
+		while (true) {
+			try {
+				Thread.sleep(period);
+			} catch (final InterruptedException e) {
+				return;
+			}
+			final long id = dispatchId, startTime = dispatchStart;
+			final Thread thread = dispatchThread;
+			final AWTEvent event = dispatchEvent;
+			if (thread == null || event == null || dispatchNested || id == reportedId || System.nanoTime() - startTime <= thresholdNanos) {
+				continue;
+			}
+			reportedId = id;
+			final StringBuilder builder = new StringBuilder();
+			builder.append(String.format("edt: %s stalled for %.1f ms in%n", describe(event), (System.nanoTime() - startTime) / 1e6));
+			for (final StackTraceElement element : thread.getStackTrace()) {
+				builder.append("\tat ").append(element).append(System.lineSeparator());
+			}
+			System.out.print(builder);
+		}
+	}
+
+	/**
+	 * a bucket per quarter of a power of two microseconds, only the dispatch thread writes
+	 */
+	private void record(final long nanos) {
+		final long micros = Math.max(1, nanos / 1000);
+		final int power = 63 - Long.numberOfLeadingZeros(micros);
+		final int subBucket = power < 2 ? 0 : (int) ((micros >>> (power - 2)) & (SUB_BUCKETS - 1));
+		buckets.incrementAndGet(Math.min(BUCKET_COUNT - 1, power * SUB_BUCKETS + subBucket));
+		if (nanos > maxNanos) {
+			maxNanos = nanos;
+		}
+	}
+
+	private static long bucketLimitMicros(final int bucket) {
+		final int power = bucket / SUB_BUCKETS, subBucket = bucket % SUB_BUCKETS;
+		if (power < 2) {
+			return 2L << power;
+		}
+		return (1L << power) + ((subBucket + 1L) << (power - 2));
+	}
+
+	public long getEventCount() {
+		long count = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			count += buckets.get(i);
+		}
+		return count;
+	}
+
+	public long getSlowEvents() {
+		return slowEvents;
+	}
+
+	/**
+	 * get number of events that ran a nested event loop, these are not timed
+	 * @return nested loop events
+	 */
+	public long getNestedEvents() {
+		return nestedEvents;
+	}
+
+	/**
+	 * get dispatch latency below which a share of the events finished
+	 * @param percentile percentile from 0 to 100
+	 * @return upper bound in microseconds, within a quarter power of two
+	 */
+	public long percentileMicros(final double percentile) {
+		final long count = getEventCount();
+		final long rank = (long) Math.ceil(percentile / 100 * count);
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += buckets.get(i);
+			if (seen >= rank && seen > 0) {
+				return Math.min(bucketLimitMicros(i), (maxNanos + 999) / 1000);
+			}
+		}
+		return 0;
+	}
+
+	public String report() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("edt: events ").append(getEventCount()).append(", slow ").append(slowEvents).append(", nested loops ").append(nestedEvents);
+		for (final double percentile : PERCENTILES) {
+			final String name = percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+			builder.append(String.format(", p%s %.2f ms", name, percentileMicros(percentile) / 1000.0));
+		}
+		builder.append(String.format(", max %.2f ms", maxNanos / 1e6));
+		return builder.toString();
+	}
+
+	/**
+	 * event class and parameters, for invokeLater the runnable is part of the parameters
+	 */
+	private static String describe(final AWTEvent event) {
+		return event.getClass().getSimpleName() + " " + event.paramString();
+	}
+}
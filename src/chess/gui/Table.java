@@ -3,6 +3,7 @@ package chess.gui;
 import chess.engine.board.Board;
 import chess.engine.board.Move;
 import chess.engine.board.Move.MoveFactory;
+import chess.engine.board.PositionHistory;
 import chess.engine.board.Tile;
 import chess.engine.piece.Piece;
 import chess.engine.player.MoveTransition;
@@ -170,6 +171,15 @@ public class Table {
 		Table.get().getBoardPanel().drawBoard(Table.get().getChessBoard());
 	}
 
+	/**
+	 * threefold repetition, fifty move rule or insufficient material
+	 * @param board current board
+	 * @return true if the game is drawn
+	 */
+	private static boolean isDraw(final Board board) {
+		return PositionHistory.of(board).repetitionCount(board.getHalfMoveClock()) >= 3 || board.isFiftyMoveDraw() || board.isInsufficientMaterial();
+	}
+
 	private void undoLastMove() {
 		final Move lastMove = Table.get().getMoveLog().removeMove(Table.get().getMoveLog().size() - 1);
 		this.chessBoard = this.chessBoard.getCurrentPlayer().unmakeMove(lastMove).getToBoard();
@@ -295,9 +305,12 @@ public class Table {
 							gameHistoryPanel.redo(chessBoard, moveLog);
 							takenPiecesPanel.redo(moveLog);
 							boardPanel.drawBoard(chessBoard);
-							if (chessBoard.getCurrentPlayer().isInCheckmate() || chessBoard.getCurrentPlayer().isInStaleMate()) {
+							if (chessBoard.getCurrentPlayer().isInCheckmate()) {
 								JOptionPane.showMessageDialog(null, chessBoard.getCurrentPlayer().getOpponent().getAlliance() + " win!");
 								undoAllMoves();
+							} else if (chessBoard.getCurrentPlayer().isInStaleMate() || isDraw(chessBoard)) {
+								JOptionPane.showMessageDialog(null, "Draw!");
+								undoAllMoves();
 							}
 						});
 					}